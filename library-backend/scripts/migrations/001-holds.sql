@@ -0,0 +1,25 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 001-holds.sql  –  Cola de reservas (holds) de libros sin ejemplares disponibles.
+--
+-- Solo para entornos con quarkus.hibernate-orm.database.generation=none (prod);
+-- en dev Hibernate crea la tabla automáticamente. Va antes de 005-branches.sql,
+-- que le agrega la columna branch.
+--
+-- USO (antes de desplegar la versión con reservas):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/001-holds.sql
+-- ──────────────────────────────────────────────────────────────────────────────
+
+CREATE TABLE IF NOT EXISTS holds (
+    id             BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    request_date   DATETIME(6)  NOT NULL,
+    fulfilled_date DATETIME(6)  NULL,
+    status         VARCHAR(255) NOT NULL,
+    user_id        BIGINT       NOT NULL,
+    book_id        BIGINT       NOT NULL,
+    loan_id        BIGINT       NULL,
+    CONSTRAINT uk_holds_loan UNIQUE (loan_id),
+    INDEX idx_holds_book_status (book_id, status, id),
+    CONSTRAINT fk_holds_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_holds_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_holds_loan FOREIGN KEY (loan_id) REFERENCES loans (id)
+);
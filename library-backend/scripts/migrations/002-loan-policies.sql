@@ -0,0 +1,25 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 002-loan-policies.sql  –  Niveles de usuario y políticas de préstamo por nivel.
+--
+-- Solo para entornos con quarkus.hibernate-orm.database.generation=none (prod);
+-- en dev Hibernate crea las columnas y la tabla automáticamente. Los usuarios
+-- existentes quedan en el nivel STANDARD y los préstamos activos vencen a los
+-- 14 días de su fecha de préstamo (la regla por defecto).
+--
+-- USO (antes de desplegar la versión con políticas de préstamo):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/002-loan-policies.sql
+-- ──────────────────────────────────────────────────────────────────────────────
+
+ALTER TABLE users ADD COLUMN tier VARCHAR(32) NOT NULL DEFAULT 'STANDARD';
+
+ALTER TABLE loans ADD COLUMN due_date DATE NULL;
+UPDATE loans SET due_date = DATE_ADD(loan_date, INTERVAL 14 DAY)
+ WHERE status = 'ACTIVE' AND due_date IS NULL;
+
+CREATE TABLE IF NOT EXISTS loan_policies (
+    id               BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    tier             VARCHAR(32) NOT NULL,
+    max_loans        INT         NOT NULL,
+    loan_period_days INT         NOT NULL,
+    CONSTRAINT uk_loan_policies_tier UNIQUE (tier)
+);
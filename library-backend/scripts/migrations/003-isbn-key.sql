@@ -0,0 +1,34 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 003-isbn-key.sql  –  Clave canónica ISBN-13 en books.
+--
+-- Solo para entornos con quarkus.hibernate-orm.database.generation=none (prod);
+-- en dev Hibernate crea la columna y el índice automáticamente.
+--
+-- USO (antes de desplegar la versión con ISBN normalizado):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/003-isbn-key.sql
+--
+-- Al arrancar, IsbnBackfill calcula isbn_key de las filas existentes, fusiona
+-- los libros duplicados y normaliza la columna isbn a 13 dígitos sin guiones.
+-- ──────────────────────────────────────────────────────────────────────────────
+
+ALTER TABLE books ADD COLUMN isbn_key BIGINT NULL;
+
+-- Índice único sobre la clave numérica; admite NULL mientras corre la migración
+ALTER TABLE books ADD CONSTRAINT uk_books_isbn_key UNIQUE (isbn_key);
+
+-- La unicidad pasa a uk_books_isbn_key. El índice único anterior sobre la columna
+-- isbn (nombre generado por Hibernate, p. ej. UK_xxxxxxxx) se elimina: IsbnBackfill
+-- reescribe isbn y ese índice fallaría con un 1062 que la API no puede asociar a
+-- un campo. El nombre se busca en information_schema; sin índice no se hace nada.
+SELECT COALESCE(CONCAT('ALTER TABLE books ',
+                       GROUP_CONCAT(CONCAT('DROP INDEX `', index_name, '`') SEPARATOR ', ')),
+                'DO 0')
+  INTO @drop_isbn_index
+  FROM (SELECT index_name
+          FROM information_schema.statistics
+         WHERE table_schema = DATABASE() AND table_name = 'books' AND non_unique = 0
+         GROUP BY index_name
+        HAVING COUNT(*) = 1 AND MAX(column_name) = 'isbn') AS isbn_indexes;
+PREPARE drop_isbn_index FROM @drop_isbn_index;
+EXECUTE drop_isbn_index;
+DEALLOCATE PREPARE drop_isbn_index;
@@ -0,0 +1,51 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 004-unique-constraint-names.sql  –  Nombres estables para los índices únicos.
+--
+-- Las altas y modificaciones de usuarios y libros ya no consultan antes de
+-- escribir: la API traduce la violación del índice único en un 409 según el
+-- nombre del índice (uk_users_email, uk_users_document, uk_books_isbn_key).
+-- Las tablas creadas por versiones anteriores tienen índices con nombre
+-- autogenerado por Hibernate (UK_xxxxxxxx); sin renombrarlos la API responde
+-- 409 con un mensaje genérico en lugar de indicar el campo.
+--
+-- El nombre actual de cada índice se busca en information_schema (índice único
+-- de una sola columna sobre email o identification_document). Si ya tiene el
+-- nombre estable no se hace nada; si no existe, se crea.
+--
+-- USO (antes de desplegar la versión con restricciones únicas):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/004-unique-constraint-names.sql
+-- ──────────────────────────────────────────────────────────────────────────────
+
+-- users.email → uk_users_email
+SET @old_index = (SELECT index_name
+                    FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'users' AND non_unique = 0
+                   GROUP BY index_name
+                  HAVING COUNT(*) = 1 AND MAX(column_name) = 'email'
+                   ORDER BY index_name = 'uk_users_email' DESC, index_name
+                   LIMIT 1);
+SET @rename_index = CASE
+    WHEN @old_index IS NULL THEN 'ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email)'
+    WHEN @old_index = 'uk_users_email' THEN 'DO 0'
+    ELSE CONCAT('ALTER TABLE users RENAME INDEX `', @old_index, '` TO uk_users_email')
+END;
+PREPARE rename_index FROM @rename_index;
+EXECUTE rename_index;
+DEALLOCATE PREPARE rename_index;
+
+-- users.identification_document → uk_users_document
+SET @old_index = (SELECT index_name
+                    FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = 'users' AND non_unique = 0
+                   GROUP BY index_name
+                  HAVING COUNT(*) = 1 AND MAX(column_name) = 'identification_document'
+                   ORDER BY index_name = 'uk_users_document' DESC, index_name
+                   LIMIT 1);
+SET @rename_index = CASE
+    WHEN @old_index IS NULL THEN 'ALTER TABLE users ADD CONSTRAINT uk_users_document UNIQUE (identification_document)'
+    WHEN @old_index = 'uk_users_document' THEN 'DO 0'
+    ELSE CONCAT('ALTER TABLE users RENAME INDEX `', @old_index, '` TO uk_users_document')
+END;
+PREPARE rename_index FROM @rename_index;
+EXECUTE rename_index;
+DEALLOCATE PREPARE rename_index;
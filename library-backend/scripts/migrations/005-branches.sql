@@ -0,0 +1,47 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 005-branches.sql  –  Columna de sucursal (branch) en todas las tablas.
+--
+-- Las filas existentes quedan en la sucursal por defecto 'main'. Los índices
+-- únicos pasan a ser por sucursal: el mismo ISBN, email o documento puede
+-- existir en sucursales distintas.
+--
+-- USO (antes de desplegar la versión con sucursales):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/005-branches.sql
+-- ──────────────────────────────────────────────────────────────────────────────
+
+ALTER TABLE books ADD COLUMN branch VARCHAR(32) NOT NULL DEFAULT 'main';
+ALTER TABLE users ADD COLUMN branch VARCHAR(32) NOT NULL DEFAULT 'main';
+ALTER TABLE loans ADD COLUMN branch VARCHAR(32) NOT NULL DEFAULT 'main';
+ALTER TABLE holds ADD COLUMN branch VARCHAR(32) NOT NULL DEFAULT 'main';
+
+-- Se eliminan todos los índices únicos globales (de una sola columna) sobre isbn,
+-- isbn_key, email e identification_document, con el nombre que tengan: los de
+-- 003/004 y cualquier índice autogenerado por Hibernate (UK_xxxxxxxx) que siga
+-- existiendo. Los nombres se buscan en information_schema y cada tabla se
+-- modifica en un único ALTER TABLE.
+SELECT CONCAT('ALTER TABLE books ',
+              COALESCE(CONCAT(GROUP_CONCAT(CONCAT('DROP INDEX `', index_name, '`') SEPARATOR ', '), ', '), ''),
+              'ADD CONSTRAINT uk_books_isbn_key UNIQUE (branch, isbn_key)')
+  INTO @branch_indexes
+  FROM (SELECT index_name
+          FROM information_schema.statistics
+         WHERE table_schema = DATABASE() AND table_name = 'books' AND non_unique = 0
+         GROUP BY index_name
+        HAVING COUNT(*) = 1 AND MAX(column_name) IN ('isbn', 'isbn_key')) AS global_indexes;
+PREPARE branch_indexes FROM @branch_indexes;
+EXECUTE branch_indexes;
+DEALLOCATE PREPARE branch_indexes;
+
+SELECT CONCAT('ALTER TABLE users ',
+              COALESCE(CONCAT(GROUP_CONCAT(CONCAT('DROP INDEX `', index_name, '`') SEPARATOR ', '), ', '), ''),
+              'ADD CONSTRAINT uk_users_email UNIQUE (branch, email), ',
+              'ADD CONSTRAINT uk_users_document UNIQUE (branch, identification_document)')
+  INTO @branch_indexes
+  FROM (SELECT index_name
+          FROM information_schema.statistics
+         WHERE table_schema = DATABASE() AND table_name = 'users' AND non_unique = 0
+         GROUP BY index_name
+        HAVING COUNT(*) = 1 AND MAX(column_name) IN ('email', 'identification_document')) AS global_indexes;
+PREPARE branch_indexes FROM @branch_indexes;
+EXECUTE branch_indexes;
+DEALLOCATE PREPARE branch_indexes;
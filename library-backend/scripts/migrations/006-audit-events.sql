@@ -0,0 +1,23 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 006-audit-events.sql  –  Tabla del log de auditoría de mutaciones.
+--
+-- La escribe en lotes el hilo en segundo plano de audit/AuditWriter cuando
+-- library.audit.sink=table (valor por defecto).
+--
+-- USO (antes de desplegar la versión con auditoría):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/006-audit-events.sql
+-- ──────────────────────────────────────────────────────────────────────────────
+
+CREATE TABLE IF NOT EXISTS audit_events (
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    event_time DATETIME(6)  NOT NULL,
+    branch     VARCHAR(32)  NOT NULL,
+    actor      VARCHAR(128) NOT NULL,
+    entity     VARCHAR(32)  NOT NULL,
+    entity_id  VARCHAR(64)  NOT NULL,
+    action     VARCHAR(32)  NOT NULL,
+    outcome    VARCHAR(16)  NOT NULL,
+    changes    LONGTEXT     NOT NULL,
+    INDEX idx_audit_entity (entity, entity_id),
+    INDEX idx_audit_time (event_time)
+);
@@ -0,0 +1,24 @@
+-- ──────────────────────────────────────────────────────────────────────────────
+-- 007-book-copies.sql  –  Ejemplares físicos con código de barras.
+--
+-- Cada ejemplar se resuelve por el índice único (branch, barcode) en el
+-- préstamo y la devolución por escáner. Los préstamos existentes quedan sin
+-- ejemplar (copy_id NULL) y los libros conservan sus cantidades.
+--
+-- USO (antes de desplegar la versión con ejemplares):
+--   mysql -u "$DB_USER" -p "$DB_NAME" < library-backend/scripts/migrations/007-book-copies.sql
+-- ──────────────────────────────────────────────────────────────────────────────
+
+CREATE TABLE IF NOT EXISTS book_copies (
+    id      BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    branch  VARCHAR(32) NOT NULL DEFAULT 'main',
+    barcode VARCHAR(32) NOT NULL,
+    status  VARCHAR(16) NOT NULL,
+    book_id BIGINT      NOT NULL,
+    CONSTRAINT uk_book_copies_barcode UNIQUE (branch, barcode),
+    INDEX idx_book_copies_book_status (book_id, status),
+    CONSTRAINT fk_book_copies_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
+
+ALTER TABLE loans ADD COLUMN copy_id BIGINT NULL,
+                  ADD CONSTRAINT fk_loans_copy FOREIGN KEY (copy_id) REFERENCES book_copies (id);
@@ -0,0 +1,39 @@
+package com.library.audit;
+
+import java.time.Instant;
+
+/**
+ * Evento de auditoría de una mutación. Se construye en el hilo de la petición
+ * solo con referencias; la diferencia entre {@code before} y {@code after}
+ * la calcula {@link AuditWriter} en segundo plano.
+ *
+ * @param timestamp momento de la mutación
+ * @param branch    sucursal en la que se ejecutó
+ * @param actor     quién la solicitó: usuario autenticado o, sin autenticación,
+ *                  cabecera X-Actor (no verificada) o dirección remota
+ * @param entity    tipo de entidad (Book, User, Loan…)
+ * @param entityId  ID de la entidad, o su clave natural si no tiene ID
+ * @param action    CREATE, UPDATE, DELETE u otra acción de negocio (RETURN…)
+ * @param outcome   COMMITTED, ROLLED_BACK o COMPLETED (sin transacción)
+ * @param before    DTO antes del cambio, o null en altas
+ * @param after     DTO después del cambio, o null en bajas
+ */
+public record AuditEvent(
+        Instant timestamp,
+        String branch,
+        String actor,
+        String entity,
+        String entityId,
+        String action,
+        String outcome,
+        Object before,
+        Object after) {
+
+    public static final String COMMITTED = "COMMITTED";
+    public static final String ROLLED_BACK = "ROLLED_BACK";
+    public static final String COMPLETED = "COMPLETED";
+
+    AuditEvent withOutcome(String outcome) {
+        return new AuditEvent(timestamp, branch, actor, entity, entityId, action, outcome, before, after);
+    }
+}
@@ -0,0 +1,160 @@
+package com.library.audit;
+
+import java.time.Instant;
+import java.util.logging.Logger;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.library.branch.BranchDirectory;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.vertx.http.runtime.security.QuarkusHttpUser;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Punto de entrada del registro de auditoría de mutaciones.
+ *
+ * {@link #record} solo captura referencias y el contexto de la petición: el
+ * evento se publica en un {@link AuditRing} al terminar la transacción en
+ * curso (con su resultado, confirmada o revertida) y {@link AuditWriter} lo
+ * escribe en segundo plano. Nunca bloquea el hilo de la petición: con el
+ * buffer lleno se aplica {@code library.audit.overflow}.
+ *
+ * El actor es el usuario autenticado de la petición, si lo hay. Si no, se
+ * toma la cabecera {@code X-Actor} o la dirección remota: la API no tiene
+ * autenticación y esa cabecera la envía el cliente sin verificar, así que en
+ * ese caso el actor es solo orientativo y puede falsificarse.
+ */
+@ApplicationScoped
+public class AuditLog {
+
+    private static final Logger LOG = Logger.getLogger(AuditLog.class.getName());
+
+    /** Cabecera opcional, no verificada, con la identidad de quien realiza el cambio. */
+    public static final String ACTOR_HEADER = "X-Actor";
+
+    private static final int MAX_ACTOR_LENGTH = 128;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.buffer-size", defaultValue = "8192")
+    int bufferSize;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.overflow", defaultValue = "DROP_NEWEST")
+    AuditRing.Overflow overflow;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    @Inject
+    BranchDirectory branches;
+
+    @Inject
+    Instance<RoutingContext> request;
+
+    private AuditRing ring;
+
+    @PostConstruct
+    void init() {
+        ring = new AuditRing(bufferSize, overflow);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra una mutación. Dentro de una transacción el evento se publica
+     * cuando esta termina; fuera de ella, de inmediato.
+     *
+     * @param entity   tipo de entidad
+     * @param entityId ID de la entidad
+     * @param action   acción realizada
+     * @param before   DTO antes del cambio, o null en altas
+     * @param after    DTO después del cambio, o null en bajas
+     */
+    public void record(String entity, Object entityId, String action, Object before, Object after) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(Instant.now(), currentBranch(), currentActor(),
+            entity, String.valueOf(entityId), action, null, before, after);
+
+        if (transactions.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            publish(event.withOutcome(AuditEvent.COMPLETED));
+            return;
+        }
+        transactions.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                publish(event.withOutcome(status == Status.STATUS_COMMITTED
+                    ? AuditEvent.COMMITTED : AuditEvent.ROLLED_BACK));
+            }
+        });
+    }
+
+    private void publish(AuditEvent event) {
+        if (!ring.offer(event) && Long.bitCount(ring.dropped()) == 1) {
+            // Aviso en potencias de dos para no inundar el log con el buffer lleno
+            LOG.warning("Buffer de auditoría lleno: " + ring.dropped() + " eventos descartados.");
+        }
+    }
+
+    AuditRing ring() {
+        return ring;
+    }
+
+    // ─── Contexto de la petición ──────────────────────────────────────────────
+
+    private RoutingContext currentRequest() {
+        return Arc.container().requestContext().isActive() ? request.get() : null;
+    }
+
+    private String currentBranch() {
+        RoutingContext context = currentRequest();
+        if (context == null) {
+            return branches.defaultBranch();
+        }
+        try {
+            return branches.resolve(context);
+        } catch (IllegalArgumentException e) {
+            return branches.defaultBranch();
+        }
+    }
+
+    private String currentActor() {
+        RoutingContext context = currentRequest();
+        if (context == null) {
+            return "system";
+        }
+        // Identidad verificada por un mecanismo de autenticación; tiene prioridad sobre la cabecera
+        if (context.user() instanceof QuarkusHttpUser user && !user.getSecurityIdentity().isAnonymous()) {
+            return truncate(user.getSecurityIdentity().getPrincipal().getName());
+        }
+        String actor = context.request().getHeader(ACTOR_HEADER);
+        if (actor != null && !actor.isBlank()) {
+            return truncate(actor);
+        }
+        return context.request().remoteAddress() != null
+            ? context.request().remoteAddress().host() : "unknown";
+    }
+
+    private static String truncate(String actor) {
+        return actor.length() > MAX_ACTOR_LENGTH ? actor.substring(0, MAX_ACTOR_LENGTH) : actor;
+    }
+}
@@ -0,0 +1,129 @@
+package com.library.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular acotado y sin bloqueos (varios productores, varios
+ * consumidores) con secuencia por celda. Los hilos de petición publican con
+ * {@link #offer}: si el buffer está lleno nunca esperan, se aplica la
+ * política de desbordamiento y el evento descartado se contabiliza.
+ */
+final class AuditRing {
+
+    /** Qué evento se descarta cuando el buffer está lleno. */
+    enum Overflow {
+        /** Se descarta el evento nuevo; se conservan los pendientes. */
+        DROP_NEWEST,
+        /** Se descarta el evento más antiguo pendiente para hacer sitio al nuevo. */
+        DROP_OLDEST
+    }
+
+    // Reintentos de DROP_OLDEST antes de descartar el nuevo (otros productores
+    // pueden ocupar el hueco liberado)
+    private static final int MAX_EVICTIONS = 4;
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final Overflow overflow;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity capacidad mínima; se redondea a la siguiente potencia de dos
+     */
+    AuditRing(int capacity, Overflow overflow) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.overflow = overflow;
+    }
+
+    /**
+     * Publica un evento sin bloquear.
+     *
+     * @return false si el evento nuevo se descartó
+     */
+    boolean offer(AuditEvent event) {
+        if (tryOffer(event)) {
+            return true;
+        }
+        if (overflow == Overflow.DROP_OLDEST) {
+            for (int i = 0; i < MAX_EVICTIONS; i++) {
+                if (poll() != null) {
+                    dropped.incrementAndGet();
+                }
+                if (tryOffer(event)) {
+                    return true;
+                }
+            }
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    private boolean tryOffer(AuditEvent event) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // lleno
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Extrae el evento más antiguo, o null si no hay ninguno publicado.
+     */
+    AuditEvent poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    AuditEvent event = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    return event;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null; // vacío
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /** Eventos pendientes (aproximado con productores concurrentes). */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /** Total de eventos descartados por desbordamiento desde el arranque. */
+    long dropped() {
+        return dropped.get();
+    }
+}
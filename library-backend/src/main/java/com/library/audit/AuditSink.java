@@ -0,0 +1,21 @@
+package com.library.audit;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Destino de los lotes de auditoría. Solo lo usa el hilo de {@link AuditWriter},
+ * por lo que las implementaciones no necesitan ser thread-safe.
+ */
+interface AuditSink extends AutoCloseable {
+
+    /**
+     * Escribe un lote de registros con los campos de {@link AuditWriter#toRecord}.
+     */
+    void write(List<ObjectNode> batch) throws Exception;
+
+    @Override
+    default void close() throws Exception {
+    }
+}
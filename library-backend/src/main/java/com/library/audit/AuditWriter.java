@@ -0,0 +1,199 @@
+package com.library.audit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+/**
+ * Hilo en segundo plano que vacía el buffer de {@link AuditLog} en lotes de
+ * hasta {@code library.audit.batch-size} eventos. Cada evento se convierte en
+ * un registro con los campos modificados ({@code changes}: campo → from/to)
+ * y el lote se escribe en la tabla {@code audit_events} o en archivos NDJSON
+ * rotados, según {@code library.audit.sink}.
+ *
+ * Si el destino falla el lote se descarta y se registra un aviso: la
+ * auditoría nunca detiene ni ralentiza las peticiones.
+ */
+@ApplicationScoped
+public class AuditWriter {
+
+    private static final Logger LOG = Logger.getLogger(AuditWriter.class.getName());
+
+    @Inject
+    AuditLog log;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    Instance<DataSource> dataSource;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.sink", defaultValue = "table")
+    String sinkType;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.batch-size", defaultValue = "256")
+    int batchSize;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.flush-interval-ms", defaultValue = "500")
+    long flushIntervalMs;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.file.directory", defaultValue = "audit")
+    String directory;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.file.max-size-mb", defaultValue = "50")
+    long maxFileSizeMb;
+
+    @Inject
+    @ConfigProperty(name = "library.audit.file.max-files", defaultValue = "10")
+    int maxFiles;
+
+    private AuditSink sink;
+    private Thread thread;
+    private volatile boolean running;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!log.isEnabled()) {
+            return;
+        }
+        try {
+            sink = "file".equalsIgnoreCase(sinkType)
+                ? new FileAuditSink(Path.of(directory), maxFileSizeMb * 1024 * 1024, maxFiles)
+                : new TableAuditSink(dataSource.get());
+        } catch (Exception e) {
+            LOG.severe("No se pudo abrir el destino de auditoría '" + sinkType + "': " + e.getMessage());
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        AuditRing ring = log.ring();
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            // Lote incompleto: esperar a que se acumulen más eventos
+            if (drain(ring) < batchSize) {
+                LockSupport.parkNanos(this, parkNanos);
+            }
+        }
+        // Parada ordenada: escribir lo pendiente antes de cerrar
+        while (drain(ring) > 0) {
+        }
+        try {
+            sink.close();
+        } catch (Exception e) {
+            LOG.warning("Error al cerrar el destino de auditoría: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return cantidad de eventos extraídos del buffer
+     */
+    private int drain(AuditRing ring) {
+        List<ObjectNode> batch = new ArrayList<>(Math.min(batchSize, ring.size()));
+        AuditEvent event;
+        while (batch.size() < batchSize && (event = ring.poll()) != null) {
+            try {
+                batch.add(toRecord(event));
+            } catch (RuntimeException e) {
+                LOG.warning("Evento de auditoría no serializable (" + event.entity() + " "
+                    + event.entityId() + "): " + e.getMessage());
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.write(batch);
+        } catch (Exception e) {
+            LOG.warning("No se pudieron escribir " + batch.size() + " eventos de auditoría: "
+                + e.getMessage());
+        }
+        return batch.size();
+    }
+
+    ObjectNode toRecord(AuditEvent event) {
+        ObjectNode record = mapper.createObjectNode();
+        record.put("timestamp", event.timestamp().toString());
+        record.put("branch", event.branch());
+        record.put("actor", event.actor());
+        record.put("entity", event.entity());
+        record.put("entityId", event.entityId());
+        record.put("action", event.action());
+        record.put("outcome", event.outcome());
+        record.set("changes", changes(event.before(), event.after()));
+        return record;
+    }
+
+    /**
+     * Campos cuyo valor difiere entre ambos DTOs; en altas y bajas, todos.
+     */
+    private ObjectNode changes(Object before, Object after) {
+        JsonNode from = before == null ? mapper.createObjectNode() : mapper.valueToTree(before);
+        JsonNode to = after == null ? mapper.createObjectNode() : mapper.valueToTree(after);
+        ObjectNode changes = mapper.createObjectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> it = from.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode value = to.path(field.getKey());
+            JsonNode next = value.isMissingNode() ? NullNode.getInstance() : value;
+            if (!field.getValue().equals(next)) {
+                changes.set(field.getKey(), change(field.getValue(), next));
+            }
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = to.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!from.has(field.getKey()) && !field.getValue().isNull()) {
+                changes.set(field.getKey(), change(NullNode.getInstance(), field.getValue()));
+            }
+        }
+        return changes;
+    }
+
+    private ObjectNode change(JsonNode from, JsonNode to) {
+        ObjectNode change = mapper.createObjectNode();
+        change.set("from", from);
+        change.set("to", to);
+        return change;
+    }
+}
@@ -0,0 +1,88 @@
+package com.library.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Escribe los registros como NDJSON (un objeto JSON por línea) en
+ * {@code audit.ndjson}. Al superar el tamaño máximo el archivo se renombra a
+ * {@code audit-<fecha UTC>.ndjson} y se eliminan los más antiguos que excedan
+ * la cantidad de archivos a conservar.
+ */
+final class FileAuditSink implements AuditSink {
+
+    private static final String CURRENT = "audit.ndjson";
+    private static final String ROTATED_PREFIX = "audit-";
+    private static final DateTimeFormatter ROTATED_NAME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private BufferedWriter writer;
+    private long size;
+
+    FileAuditSink(Path directory, long maxFileSize, int maxFiles) throws IOException {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        Files.createDirectories(directory);
+        open();
+    }
+
+    @Override
+    public void write(List<ObjectNode> batch) throws IOException {
+        for (ObjectNode record : batch) {
+            String line = record.toString();
+            writer.write(line);
+            writer.write('\n');
+            // Aproximado: los registros son casi siempre ASCII
+            size += line.length() + 1;
+        }
+        writer.flush();
+        if (size >= maxFileSize) {
+            rotate();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        Path file = directory.resolve(CURRENT);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        writer.close();
+        String stamp = ZonedDateTime.now(ZoneOffset.UTC).format(ROTATED_NAME);
+        Files.move(directory.resolve(CURRENT), directory.resolve(ROTATED_PREFIX + stamp + ".ndjson"));
+        try (Stream<Path> files = Files.list(directory)) {
+            // El nombre con fecha ordena cronológicamente; se conservan los maxFiles - 1 más recientes
+            List<Path> rotated = files
+                .filter(p -> p.getFileName().toString().startsWith(ROTATED_PREFIX))
+                .sorted()
+                .toList();
+            for (int i = 0; i < rotated.size() - (maxFiles - 1); i++) {
+                Files.deleteIfExists(rotated.get(i));
+            }
+        }
+        open();
+    }
+}
@@ -0,0 +1,55 @@
+package com.library.audit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Escribe cada lote en la tabla {@code audit_events} con un único INSERT por
+ * lotes de JDBC y una transacción propia, fuera de Hibernate: no pasa por el
+ * perfilador SQL ni por el filtro de sucursal.
+ */
+final class TableAuditSink implements AuditSink {
+
+    private static final String INSERT = "insert into audit_events "
+        + "(event_time, branch, actor, entity, entity_id, action, outcome, changes) "
+        + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+
+    TableAuditSink(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void write(List<ObjectNode> batch) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (ObjectNode record : batch) {
+                    insert.setTimestamp(1, Timestamp.from(Instant.parse(record.get("timestamp").asText())));
+                    insert.setString(2, record.get("branch").asText());
+                    insert.setString(3, record.get("actor").asText());
+                    insert.setString(4, record.get("entity").asText());
+                    insert.setString(5, record.get("entityId").asText());
+                    insert.setString(6, record.get("action").asText());
+                    insert.setString(7, record.get("outcome").asText());
+                    insert.setString(8, record.get("changes").toString());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+}
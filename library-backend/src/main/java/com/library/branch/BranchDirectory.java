@@ -0,0 +1,87 @@
+package com.library.branch;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Catálogo de sucursales configuradas. Cada sucursal tiene su propio catálogo
+ * de libros, usuarios y préstamos, separados mediante la columna {@code branch}.
+ *
+ * Solo se aceptan las sucursales listadas en {@code library.branch.names} para
+ * que un error tipográfico en la ruta no cree una sucursal fantasma.
+ */
+@ApplicationScoped
+public class BranchDirectory {
+
+    /** Sucursal por defecto; coincide con el valor por defecto de la columna branch. */
+    public static final String DEFAULT_BRANCH = "main";
+
+    private static final Pattern VALID_NAME = Pattern.compile("^[a-z0-9][a-z0-9-]{0,31}$");
+
+    @Inject
+    @ConfigProperty(name = "library.branch.default", defaultValue = DEFAULT_BRANCH)
+    String defaultBranch;
+
+    @Inject
+    @ConfigProperty(name = "library.branch.names", defaultValue = DEFAULT_BRANCH)
+    List<String> names;
+
+    private Set<String> known;
+
+    @PostConstruct
+    void init() {
+        for (String name : names) {
+            if (!VALID_NAME.matcher(name).matches()) {
+                throw new IllegalStateException("Nombre de sucursal inválido en library.branch.names: " + name);
+            }
+        }
+        known = Set.copyOf(names);
+        if (!known.contains(defaultBranch)) {
+            throw new IllegalStateException(
+                "library.branch.default (" + defaultBranch + ") debe estar en library.branch.names");
+        }
+    }
+
+    public String defaultBranch() {
+        return defaultBranch;
+    }
+
+    public boolean isKnown(String branch) {
+        return branch != null && known.contains(branch);
+    }
+
+    public Set<String> all() {
+        return known;
+    }
+
+    /**
+     * Sucursal de una petición HTTP: la de la ruta {@code /api/branches/{branch}/…}
+     * (registrada por {@link BranchRoutingFilter}), la cabecera {@code X-Branch}
+     * o la sucursal por defecto.
+     *
+     * @throws IllegalArgumentException si la cabecera indica una sucursal no configurada
+     */
+    public String resolve(RoutingContext context) {
+        String branch = context.get(BranchRoutingFilter.BRANCH_KEY);
+        if (branch != null) {
+            return branch;
+        }
+        String header = context.request().getHeader(BranchRoutingFilter.BRANCH_HEADER);
+        if (header == null) {
+            return defaultBranch;
+        }
+        if (!isKnown(header)) {
+            // Rutas fuera de JAX-RS (p. ej. /graphql) no pasan por el filtro
+            throw new IllegalArgumentException("Sucursal no encontrada: " + header);
+        }
+        return header;
+    }
+}
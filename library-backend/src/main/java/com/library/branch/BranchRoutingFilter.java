@@ -0,0 +1,68 @@
+package com.library.branch;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.library.resource.ErrorResponse;
+
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Filtro JAX-RS previo al enrutamiento que hace disponibles todas las rutas
+ * de la API bajo el prefijo de una sucursal:
+ *
+ *   /api/branches/{branch}/books/1  →  /api/books/1  (sucursal {branch})
+ *
+ * Las rutas sin prefijo siguen funcionando sobre la sucursal indicada en la
+ * cabecera {@code X-Branch} o la sucursal por defecto. Una sucursal no
+ * configurada responde 404.
+ */
+@Provider
+@PreMatching
+public class BranchRoutingFilter implements ContainerRequestFilter {
+
+    /** Clave en el RoutingContext con la sucursal resuelta para la petición. */
+    public static final String BRANCH_KEY = "library.branch";
+
+    public static final String BRANCH_HEADER = "X-Branch";
+
+    private static final Pattern BRANCH_PATH = Pattern.compile("^/api/branches/([^/]+)(/.*)$");
+
+    @Inject
+    BranchDirectory branches;
+
+    @Inject
+    RoutingContext routingContext;
+
+    @Override
+    public void filter(ContainerRequestContext req) {
+        String branch;
+        Matcher matcher = BRANCH_PATH.matcher(req.getUriInfo().getPath());
+        if (matcher.matches()) {
+            branch = matcher.group(1);
+            req.setRequestUri(req.getUriInfo().getRequestUriBuilder()
+                .replacePath("/api" + matcher.group(2))
+                .build());
+        } else {
+            branch = req.getHeaderString(BRANCH_HEADER);
+            if (branch == null) {
+                return;
+            }
+        }
+        if (!branches.isKnown(branch)) {
+            req.abortWith(Response.status(Response.Status.NOT_FOUND)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(new ErrorResponse("Sucursal no encontrada"))
+                .build());
+            return;
+        }
+        routingContext.put(BRANCH_KEY, branch);
+    }
+}
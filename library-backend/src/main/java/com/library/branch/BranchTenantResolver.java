@@ -0,0 +1,44 @@
+package com.library.branch;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Resuelve la sucursal (tenant) de la sesión de Hibernate a partir de la
+ * petición HTTP: la sucursal de la ruta {@code /api/branches/{branch}/…}
+ * (registrada por {@link BranchRoutingFilter}) o, si no, la cabecera
+ * {@code X-Branch}. Sin ninguna de las dos se usa la sucursal por defecto,
+ * igual que en tareas sin petición (arranque, procesos en segundo plano).
+ *
+ * Es de ámbito aplicación: también se invoca fuera de una petición, donde
+ * no hay contexto de request activo.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class BranchTenantResolver implements TenantResolver {
+
+    @Inject
+    CurrentVertxRequest request;
+
+    @Inject
+    BranchDirectory branches;
+
+    @Override
+    public String getDefaultTenantId() {
+        return branches.defaultBranch();
+    }
+
+    @Override
+    public String resolveTenantId() {
+        if (!Arc.container().requestContext().isActive()) {
+            return branches.defaultBranch();
+        }
+        RoutingContext context = request.getCurrent();
+        return context != null ? branches.resolve(context) : branches.defaultBranch();
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Limita la concurrencia del método al presupuesto del compartimento
+ * indicado. Con el compartimento lleno la llamada espera como máximo
+ * {@code max-wait-ms} y después se rechaza con {@link BulkheadRejectedException}.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    @Nonbinding
+    Compartment value();
+}
@@ -0,0 +1,43 @@
+package com.library.bulkhead;
+
+import java.lang.reflect.Method;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Aplica {@link Bulkhead}. Se ejecuta con prioridad PLATFORM_BEFORE + 100,
+ * antes que {@code @Transactional} (PLATFORM_BEFORE + 200), para no abrir la
+ * transacción ni tomar conexión del pool mientras se espera el permiso.
+ */
+// El compartimento es @Nonbinding: este interceptor atiende a todos
+@Bulkhead(Compartment.READS)
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class BulkheadInterceptor {
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @AroundInvoke
+    Object limit(InvocationContext context) throws Exception {
+        Bulkheads.Limiter limiter = bulkheads.limiter(compartmentOf(context.getMethod()));
+        limiter.acquire();
+        try {
+            return context.proceed();
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private static Compartment compartmentOf(Method method) {
+        Bulkhead binding = method.getAnnotation(Bulkhead.class);
+        if (binding == null) {
+            binding = method.getDeclaringClass().getAnnotation(Bulkhead.class);
+        }
+        return binding.value();
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.bulkhead;
+
+import java.util.Locale;
+
+/**
+ * La llamada no obtuvo un permiso de su compartimento a tiempo. Se traduce a
+ * 503 Service Unavailable para que el cliente reintente más tarde.
+ */
+public class BulkheadRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Compartment compartment;
+
+    public BulkheadRejectedException(Compartment compartment) {
+        super("Servicio saturado (" + compartment.name().toLowerCase(Locale.ROOT) + "); reintente en unos segundos.");
+        this.compartment = compartment;
+    }
+
+    public Compartment getCompartment() {
+        return compartment;
+    }
+}
@@ -0,0 +1,153 @@
+package com.library.bulkhead;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.library.dto.BulkheadStatsDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Presupuestos de concurrencia por {@link Compartment}.
+ *
+ * Cada compartimento admite {@code max-concurrent} llamadas simultáneas y una
+ * cola de hasta {@code max-waiting} llamadas que esperan como máximo
+ * {@code max-wait-ms}; el resto se rechaza de inmediato. La suma de
+ * {@code max-concurrent} debe quedar por debajo de
+ * {@code quarkus.datasource.jdbc.max-size} para que los listados nunca agoten
+ * las conexiones de los préstamos.
+ */
+@ApplicationScoped
+public class Bulkheads {
+
+    @Inject
+    @ConfigProperty(name = "library.bulkhead.reads.max-concurrent", defaultValue = "8")
+    int readsMaxConcurrent;
+
+    @Inject
+    @ConfigProperty(name = "library.bulkhead.reads.max-waiting", defaultValue = "16")
+    int readsMaxWaiting;
+
+    @Inject
+    @ConfigProperty(name = "library.bulkhead.reads.max-wait-ms", defaultValue = "100")
+    long readsMaxWaitMs;
+
+    @Inject
+    @ConfigProperty(name = "library.bulkhead.circulation.max-concurrent", defaultValue = "12")
+    int circulationMaxConcurrent;
+
+    @Inject
+    @ConfigProperty(name = "library.bulkhead.circulation.max-waiting", defaultValue = "50")
+    int circulationMaxWaiting;
+
+    @Inject
+    @ConfigProperty(name = "library.bulkhead.circulation.max-wait-ms", defaultValue = "2000")
+    long circulationMaxWaitMs;
+
+    private final Map<Compartment, Limiter> limiters = new EnumMap<>(Compartment.class);
+
+    @PostConstruct
+    void init() {
+        limiters.put(Compartment.READS,
+            new Limiter(Compartment.READS, readsMaxConcurrent, readsMaxWaiting, readsMaxWaitMs));
+        limiters.put(Compartment.CIRCULATION,
+            new Limiter(Compartment.CIRCULATION, circulationMaxConcurrent, circulationMaxWaiting,
+                circulationMaxWaitMs));
+    }
+
+    Limiter limiter(Compartment compartment) {
+        return limiters.get(compartment);
+    }
+
+    /**
+     * Estado actual de cada compartimento: llamadas en curso, en cola y
+     * totales aceptadas y rechazadas desde el arranque.
+     */
+    public List<BulkheadStatsDTO> stats() {
+        List<BulkheadStatsDTO> stats = new ArrayList<>(limiters.size());
+        for (Limiter limiter : limiters.values()) {
+            stats.add(limiter.stats());
+        }
+        return stats;
+    }
+
+    // ─── Limiter ──────────────────────────────────────────────────────────────
+
+    static final class Limiter {
+
+        private final Compartment compartment;
+        private final int maxConcurrent;
+        private final int maxWaiting;
+        private final long maxWaitNanos;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger peakWaiting = new AtomicInteger();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Limiter(Compartment compartment, int maxConcurrent, int maxWaiting, long maxWaitMs) {
+            this.compartment = compartment;
+            this.maxConcurrent = Math.max(1, maxConcurrent);
+            this.maxWaiting = Math.max(0, maxWaiting);
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            this.permits = new Semaphore(this.maxConcurrent);
+        }
+
+        /**
+         * @throws BulkheadRejectedException si la cola está llena o vence la espera
+         */
+        void acquire() {
+            if (permits.tryAcquire()) {
+                accepted.increment();
+                return;
+            }
+            int depth = waiting.incrementAndGet();
+            try {
+                if (depth > maxWaiting) {
+                    throw reject();
+                }
+                peakWaiting.accumulateAndGet(depth, Math::max);
+                if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    throw reject();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                waiting.decrementAndGet();
+            }
+            accepted.increment();
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        private BulkheadRejectedException reject() {
+            rejected.increment();
+            return new BulkheadRejectedException(compartment);
+        }
+
+        BulkheadStatsDTO stats() {
+            return new BulkheadStatsDTO(
+                compartment.name(),
+                maxConcurrent,
+                maxConcurrent - permits.availablePermits(),
+                maxWaiting,
+                waiting.get(),
+                peakWaiting.get(),
+                accepted.sum(),
+                rejected.sum());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.library.bulkhead;
+
+/**
+ * Compartimentos con presupuesto propio de concurrencia. Sus límites se
+ * configuran en {@code library.bulkhead.<nombre>.*}.
+ */
+public enum Compartment {
+
+    /** Listados y exportaciones completas (GET de colecciones, catálogo). */
+    READS,
+
+    /** Préstamos y devoluciones en mostrador: deben responder aunque haya listados en curso. */
+    CIRCULATION
+}
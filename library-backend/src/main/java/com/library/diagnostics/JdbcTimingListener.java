@@ -0,0 +1,42 @@
+package com.library.diagnostics;
+
+import org.hibernate.BaseSessionEventListener;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Mide la duración de cada ejecución JDBC y la acumula en el perfil de la
+ * petición en curso. Hibernate crea una instancia por sesión a partir de la
+ * propiedad {@code hibernate.session.events.auto}.
+ */
+@RegisterForReflection
+public class JdbcTimingListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.onExecuteStart();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.onExecuteEnd();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
@@ -0,0 +1,25 @@
+package com.library.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+
+/**
+ * Registra el texto de cada sentencia que Hibernate prepara para asociarlo
+ * con su tiempo de ejecución en el perfil de la petición en curso.
+ * No modifica la sentencia.
+ */
+@PersistenceUnitExtension
+public class ProfilingStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        RequestProfile profile = SqlProfiler.current();
+        if (profile != null) {
+            profile.onPrepare(sql);
+        }
+        return sql;
+    }
+}
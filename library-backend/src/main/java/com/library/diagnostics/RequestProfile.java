@@ -0,0 +1,133 @@
+package com.library.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.library.dto.SlowRequestDTO;
+
+/**
+ * Acumula la actividad SQL de una petición HTTP: número de sentencias,
+ * tiempo total en base de datos y las sentencias más lentas. También mide la
+ * memoria asignada por el hilo de la petición (si la JVM lo permite).
+ *
+ * Cada instancia pertenece a un único hilo de petición, por lo que no
+ * necesita sincronización; solo se publica (inmutable) al terminar.
+ */
+public class RequestProfile {
+
+    /** Cantidad de sentencias lentas conservadas por petición. */
+    static final int TOP_STATEMENTS = 5;
+
+    private static final int MAX_SQL_LENGTH = 500;
+
+    // Extensión de HotSpot; null si la JVM no mide asignaciones por hilo
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    final String method;
+    final String path;
+    final long startNanos = System.nanoTime();
+    final Instant timestamp = Instant.now();
+    final long startAllocatedBytes = threadAllocatedBytes();
+
+    int statementCount;
+    long dbNanos;
+
+    private String pendingSql;
+    private long executeStart;
+
+    // Top-N por duración, sin ordenar: se reemplaza el mínimo
+    private final String[] topSql = new String[TOP_STATEMENTS];
+    private final long[] topNanos = new long[TOP_STATEMENTS];
+    private int topSize;
+
+    RequestProfile(String method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+
+    void onPrepare(String sql) {
+        this.pendingSql = sql;
+    }
+
+    void onExecuteStart() {
+        this.executeStart = System.nanoTime();
+    }
+
+    void onExecuteEnd() {
+        long elapsed = System.nanoTime() - executeStart;
+        statementCount++;
+        dbNanos += elapsed;
+        keepIfSlow(pendingSql, elapsed);
+    }
+
+    private void keepIfSlow(String sql, long elapsed) {
+        if (topSize < TOP_STATEMENTS) {
+            topSql[topSize] = sql;
+            topNanos[topSize] = elapsed;
+            topSize++;
+            return;
+        }
+        int min = 0;
+        for (int i = 1; i < TOP_STATEMENTS; i++) {
+            if (topNanos[i] < topNanos[min]) {
+                min = i;
+            }
+        }
+        if (elapsed > topNanos[min]) {
+            topSql[min] = sql;
+            topNanos[min] = elapsed;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Bytes asignados por el hilo actual desde que empezó la petición, o -1 si
+     * no se pueden medir. Debe llamarse desde el hilo de la petición.
+     */
+    long allocatedBytes() {
+        if (startAllocatedBytes < 0) {
+            return -1;
+        }
+        return threadAllocatedBytes() - startAllocatedBytes;
+    }
+
+    private static long threadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot
+                && hotspot.isThreadAllocatedMemorySupported()
+                && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot;
+        }
+        return null;
+    }
+
+    SlowRequestDTO toSlowRequest(int status, long totalNanos, long allocatedBytes) {
+        List<SlowRequestDTO.Statement> slowest = new ArrayList<>(topSize);
+        for (int i = 0; i < topSize; i++) {
+            slowest.add(new SlowRequestDTO.Statement(truncate(topSql[i]), toMillis(topNanos[i])));
+        }
+        slowest.sort((a, b) -> Double.compare(b.millis, a.millis));
+        return new SlowRequestDTO(timestamp, method, path, status,
+            toMillis(totalNanos), toMillis(dbNanos), statementCount,
+            allocatedBytes < 0 ? null : allocatedBytes / 1024, slowest);
+    }
+
+    static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static String truncate(String sql) {
+        if (sql == null) return null;
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "…";
+    }
+}
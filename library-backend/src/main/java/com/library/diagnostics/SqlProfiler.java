@@ -0,0 +1,117 @@
+package com.library.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.library.dto.SlowRequestDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Perfilador SQL por petición.
+ *
+ * El perfil de la petición en curso se guarda en un ThreadLocal que alimentan
+ * {@link ProfilingStatementInspector} (texto SQL) y {@link JdbcTimingListener}
+ * (tiempos de ejecución). Las peticiones que superan el umbral se guardan en
+ * un buffer circular acotado que se consulta desde
+ * {@link com.library.resource.DiagnosticsResource}.
+ */
+@ApplicationScoped
+public class SqlProfiler {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    @Inject
+    @ConfigProperty(name = "library.profiler.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "library.profiler.slow-threshold-ms", defaultValue = "200")
+    long slowThresholdMs;
+
+    @Inject
+    @ConfigProperty(name = "library.profiler.buffer-size", defaultValue = "100")
+    int bufferSize;
+
+    @Inject
+    @ConfigProperty(name = "library.profiler.server-timing", defaultValue = "false")
+    boolean serverTiming;
+
+    private AtomicReferenceArray<SlowRequestDTO> buffer;
+    private final AtomicLong written = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        buffer = new AtomicReferenceArray<>(Math.max(1, bufferSize));
+    }
+
+    /** Perfil de la petición atendida por el hilo actual, o null si no se perfila. */
+    static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServerTimingEnabled() {
+        return serverTiming;
+    }
+
+    RequestProfile begin(String method, String path) {
+        RequestProfile profile = new RequestProfile(method, path);
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * Cierra el perfil y lo guarda en el buffer si la petición fue lenta.
+     *
+     * @return duración total de la petición en nanosegundos
+     */
+    long end(RequestProfile profile, int status, long allocatedBytes) {
+        CURRENT.remove();
+        long total = profile.elapsedNanos();
+        if (total >= slowThresholdMs * 1_000_000L) {
+            record(profile.toSlowRequest(status, total, allocatedBytes));
+        }
+        return total;
+    }
+
+    private void record(SlowRequestDTO slow) {
+        AtomicReferenceArray<SlowRequestDTO> ring = buffer;
+        long slot = written.getAndIncrement();
+        ring.set((int) (slot % ring.length()), slow);
+    }
+
+    /**
+     * Retorna las peticiones lentas registradas, de la más reciente a la más antigua.
+     */
+    public List<SlowRequestDTO> slowRequests() {
+        AtomicReferenceArray<SlowRequestDTO> ring = buffer;
+        long last = written.get();
+        int count = (int) Math.min(last, ring.length());
+        List<SlowRequestDTO> result = new ArrayList<>(count);
+        for (long i = last - 1; i >= last - count; i--) {
+            SlowRequestDTO slow = ring.get((int) (i % ring.length()));
+            if (slow != null) {
+                result.add(slow);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        AtomicReferenceArray<SlowRequestDTO> ring = buffer;
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.library.diagnostics;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Filtro JAX-RS que abre un perfil SQL al recibir cada petición a /api y lo
+ * cierra al responder. Opcionalmente agrega la cabecera {@code Server-Timing}
+ * (visible en las herramientas de desarrollo del navegador) con el tiempo en
+ * base de datos, el número de sentencias y la memoria asignada.
+ */
+@Provider
+public class SqlProfilingFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String PROFILE_PROPERTY = RequestProfile.class.getName();
+
+    @Inject
+    SqlProfiler profiler;
+
+    @Override
+    public void filter(ContainerRequestContext req) {
+        if (!profiler.isEnabled()) {
+            return;
+        }
+        String path = req.getUriInfo().getPath();
+        if (!path.startsWith("/api/") || path.startsWith("/api/diagnostics")) {
+            return;
+        }
+        req.setProperty(PROFILE_PROPERTY, profiler.begin(req.getMethod(), path));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext req, ContainerResponseContext res) {
+        Object property = req.getProperty(PROFILE_PROPERTY);
+        if (!(property instanceof RequestProfile profile)) {
+            return;
+        }
+        long allocated = profile.allocatedBytes();
+        long total = profiler.end(profile, res.getStatus(), allocated);
+        if (profiler.isServerTimingEnabled()) {
+            String timing = "db;dur=" + RequestProfile.toMillis(profile.dbNanos)
+                + ";desc=\"" + profile.statementCount + " sql\", "
+                + "total;dur=" + RequestProfile.toMillis(total);
+            if (allocated >= 0) {
+                timing += ", alloc;desc=\"" + allocated / 1024 + " KB\"";
+            }
+            res.getHeaders().putSingle("Server-Timing", timing);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.library.dto;
+
+import com.library.entity.BookCopy.CopyStatus;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * DTO para transferir datos de un ejemplar físico de un libro.
+ * Para registrar un ejemplar solo se requiere el código de barras; el libro
+ * viene en la ruta.
+ */
+public class BookCopyDTO {
+
+    /** Formato de código de barras aceptado: alfanumérico con guiones, 4 a 32 caracteres. */
+    public static final String BARCODE_PATTERN = "^[A-Za-z0-9-]{4,32}$";
+
+    public Long id;
+
+    @NotBlank(message = "El código de barras es obligatorio")
+    @Pattern(regexp = BARCODE_PATTERN,
+             message = "El código de barras debe tener entre 4 y 32 caracteres alfanuméricos")
+    public String barcode;
+
+    public CopyStatus status;
+
+    public Long bookId;
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public BookCopyDTO() {}
+
+    public BookCopyDTO(Long id, String barcode, CopyStatus status, Long bookId) {
+        this.id = id;
+        this.barcode = barcode;
+        this.status = status;
+        this.bookId = bookId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.library.dto;
+
+/**
+ * DTO con el estado de un compartimento de concurrencia (bulkhead).
+ */
+public class BulkheadStatsDTO {
+
+    public String compartment;
+    public int maxConcurrent;
+    public int running;
+    public int maxWaiting;
+    public int waiting;
+    public int peakWaiting;
+    public long accepted;
+    public long rejected;
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public BulkheadStatsDTO() {}
+
+    public BulkheadStatsDTO(String compartment, int maxConcurrent, int running, int maxWaiting,
+                            int waiting, int peakWaiting, long accepted, long rejected) {
+        this.compartment = compartment;
+        this.maxConcurrent = maxConcurrent;
+        this.running = running;
+        this.maxWaiting = maxWaiting;
+        this.waiting = waiting;
+        this.peakWaiting = peakWaiting;
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+}
@@ -0,0 +1,30 @@
+package com.library.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO para prestar un ejemplar escaneado en el mostrador.
+ */
+public class CheckoutDTO {
+
+    @NotNull(message = "El ID del usuario es obligatorio")
+    @Positive(message = "El ID del usuario debe ser un número positivo")
+    public Long userId;
+
+    @NotBlank(message = "El código de barras es obligatorio")
+    @Pattern(regexp = BookCopyDTO.BARCODE_PATTERN,
+             message = "El código de barras debe tener entre 4 y 32 caracteres alfanuméricos")
+    public String barcode;
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public CheckoutDTO() {}
+
+    public CheckoutDTO(Long userId, String barcode) {
+        this.userId = userId;
+        this.barcode = barcode;
+    }
+}
@@ -0,0 +1,47 @@
+package com.library.dto;
+
+import java.time.LocalDateTime;
+
+import com.library.entity.Hold.HoldStatus;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO para transferir datos de una reserva.
+ * Para crear una reserva solo se requiere userId; el libro viene en la ruta.
+ */
+public class HoldDTO {
+
+    public Long id;
+
+    public LocalDateTime requestDate;
+
+    public LocalDateTime fulfilledDate;
+
+    public HoldStatus status;
+
+    @NotNull(message = "El ID del usuario es obligatorio")
+    @Positive(message = "El ID del usuario debe ser un número positivo")
+    public Long userId;
+
+    public Long bookId;
+
+    // Préstamo generado al atender la reserva (null mientras espera)
+    public Long loanId;
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public HoldDTO() {}
+
+    public HoldDTO(Long id, LocalDateTime requestDate, LocalDateTime fulfilledDate,
+                   HoldStatus status, Long userId, Long bookId, Long loanId) {
+        this.id = id;
+        this.requestDate = requestDate;
+        this.fulfilledDate = fulfilledDate;
+        this.status = status;
+        this.userId = userId;
+        this.bookId = bookId;
+        this.loanId = loanId;
+    }
+}
@@ -2,6 +2,8 @@ package com.library.dto;
 
 import java.time.LocalDate;
 
+import org.eclipse.microprofile.graphql.Type;
+
 import com.library.entity.Loan.LoanStatus;
 
 import jakarta.validation.constraints.NotNull;
@@ -11,12 +13,15 @@ import jakarta.validation.constraints.Positive;
  * DTO para transferir datos de un préstamo.
  * Para crear un préstamo se requieren userId y bookId.
  */
+@Type("Loan")
 public class LoanDTO {
 
     public Long id;
 
     public LocalDate loanDate;
 
+    public LocalDate dueDate;
+
     public LocalDate returnDate;
 
     public LoanStatus status;
@@ -34,15 +39,19 @@ public class LoanDTO {
     public String userName;
     public String bookTitle;
 
+    // Código de barras del ejemplar (solo en préstamos y devoluciones por ejemplar)
+    public String barcode;
+
     // ─── Constructors ─────────────────────────────────────────────────────────
 
     public LoanDTO() {}
 
-    public LoanDTO(Long id, LocalDate loanDate, LocalDate returnDate,
+    public LoanDTO(Long id, LocalDate loanDate, LocalDate dueDate, LocalDate returnDate,
                    LoanStatus status, Long userId, Long bookId,
                    String userName, String bookTitle) {
         this.id = id;
         this.loanDate = loanDate;
+        this.dueDate = dueDate;
         this.returnDate = returnDate;
         this.status = status;
         this.userId = userId;
@@ -0,0 +1,31 @@
+package com.library.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * DTO para transferir la política de préstamo de un nivel de usuario.
+ * El nivel se toma de la ruta; en el cuerpo solo se envían los límites.
+ */
+public class LoanPolicyDTO {
+
+    public String tier;
+
+    @Min(value = 0, message = "El máximo de préstamos no puede ser negativo")
+    @Max(value = 100, message = "El máximo de préstamos no puede superar 100")
+    public int maxLoans;
+
+    @Min(value = 1, message = "La duración del préstamo debe ser al menos 1 día")
+    @Max(value = 365, message = "La duración del préstamo no puede superar 365 días")
+    public int loanPeriodDays;
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public LoanPolicyDTO() {}
+
+    public LoanPolicyDTO(String tier, int maxLoans, int loanPeriodDays) {
+        this.tier = tier;
+        this.maxLoans = maxLoans;
+        this.loanPeriodDays = loanPeriodDays;
+    }
+}
@@ -0,0 +1,52 @@
+package com.library.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.library.entity.Loan.LoanStatus;
+
+/**
+ * Listado de préstamos en forma normalizada: cada préstamo solo referencia
+ * userId y bookId, y el nombre de cada usuario y el título de cada libro se
+ * envían una única vez en {@link #users} y {@link #books}.
+ * Reduce el tamaño de los listados grandes frente a repetir userName y
+ * bookTitle en cada {@link LoanDTO}.
+ */
+public class NormalizedLoansDTO {
+
+    public List<Entry> loans = new ArrayList<>();
+
+    // userId → nombre del usuario
+    public Map<Long, String> users = new LinkedHashMap<>();
+
+    // bookId → título del libro
+    public Map<Long, String> books = new LinkedHashMap<>();
+
+    /** Préstamo sin los campos de lectura repetidos. */
+    public static class Entry {
+
+        public Long id;
+        public LocalDate loanDate;
+        public LocalDate dueDate;
+        public LocalDate returnDate;
+        public LoanStatus status;
+        public Long userId;
+        public Long bookId;
+
+        public Entry() {}
+
+        public Entry(Long id, LocalDate loanDate, LocalDate dueDate, LocalDate returnDate,
+                     LoanStatus status, Long userId, Long bookId) {
+            this.id = id;
+            this.loanDate = loanDate;
+            this.dueDate = dueDate;
+            this.returnDate = returnDate;
+            this.status = status;
+            this.userId = userId;
+            this.bookId = bookId;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.library.dto;
+
+/**
+ * DTO de un libro recomendado por co-préstamo.
+ * {@code score} es la cantidad (aproximada) de usuarios en común.
+ */
+public class RecommendationDTO {
+
+    public Long bookId;
+    public String title;
+    public String author;
+    public String isbn;
+    public int availableQuantity;
+    public long score;
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public RecommendationDTO() {}
+
+    public RecommendationDTO(Long bookId, String title, String author, String isbn,
+                             int availableQuantity, long score) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.availableQuantity = availableQuantity;
+        this.score = score;
+    }
+}
@@ -0,0 +1,53 @@
+package com.library.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO con el perfil SQL de una petición que superó el umbral de lentitud.
+ */
+public class SlowRequestDTO {
+
+    public Instant timestamp;
+    public String method;
+    public String path;
+    public int status;
+    public double totalMillis;
+    public double dbMillis;
+    public int statementCount;
+    // Memoria asignada por el hilo de la petición; null si la JVM no la mide
+    public Long allocatedKb;
+    public List<Statement> slowestStatements;
+
+    /** Sentencia SQL y su duración de ejecución. */
+    public static class Statement {
+
+        public String sql;
+        public double millis;
+
+        public Statement() {}
+
+        public Statement(String sql, double millis) {
+            this.sql = sql;
+            this.millis = millis;
+        }
+    }
+
+    // ─── Constructors ─────────────────────────────────────────────────────────
+
+    public SlowRequestDTO() {}
+
+    public SlowRequestDTO(Instant timestamp, String method, String path, int status,
+                          double totalMillis, double dbMillis, int statementCount,
+                          Long allocatedKb, List<Statement> slowestStatements) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.totalMillis = totalMillis;
+        this.dbMillis = dbMillis;
+        this.statementCount = statementCount;
+        this.allocatedKb = allocatedKb;
+        this.slowestStatements = slowestStatements;
+    }
+}
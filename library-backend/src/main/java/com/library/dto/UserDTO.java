@@ -1,5 +1,7 @@
 package com.library.dto;
 
+import org.eclipse.microprofile.graphql.Type;
+
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -8,6 +10,7 @@ import jakarta.validation.constraints.Size;
 /**
  * DTO para transferir datos de un usuario de la biblioteca.
  */
+@Type("User")
 public class UserDTO {
 
     public Long id;
@@ -29,6 +32,11 @@ public class UserDTO {
     @Size(max = 255, message = "El email no puede superar 255 caracteres")
     public String email;
 
+    // Nivel del usuario (STANDARD si se omite); determina su política de préstamo
+    @Pattern(regexp = "^[A-Z0-9_]{1,32}$",
+             message = "El nivel debe tener entre 1 y 32 letras mayúsculas, dígitos o guiones bajos")
+    public String tier;
+
     public int activeLoans;
 
     // ─── Constructors ─────────────────────────────────────────────────────────
@@ -36,11 +44,12 @@ public class UserDTO {
     public UserDTO() {}
 
     public UserDTO(Long id, String name, String identificationDocument,
-                   String email, int activeLoans) {
+                   String email, String tier, int activeLoans) {
         this.id = id;
         this.name = name;
         this.identificationDocument = identificationDocument;
         this.email = email;
+        this.tier = tier;
         this.activeLoans = activeLoans;
     }
 }
@@ -0,0 +1,49 @@
+package com.library.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Registro del log de auditoría de mutaciones. Lo escribe en lotes
+ * {@link com.library.audit.AuditWriter} mediante JDBC; la entidad define la
+ * tabla y permite consultarla. No es por sucursal: la sucursal se guarda
+ * como un dato más del evento.
+ */
+@Entity
+@Table(name = "audit_events", indexes = {
+    @Index(name = "idx_audit_entity", columnList = "entity, entity_id"),
+    @Index(name = "idx_audit_time", columnList = "event_time")
+})
+public class AuditEntry extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(name = "event_time", nullable = false)
+    public LocalDateTime eventTime;
+
+    @Column(nullable = false, length = 32)
+    public String branch;
+
+    @Column(nullable = false, length = 128)
+    public String actor;
+
+    @Column(nullable = false, length = 32)
+    public String entity;
+
+    @Column(name = "entity_id", nullable = false, length = 64)
+    public String entityId;
+
+    @Column(nullable = false, length = 32)
+    public String action;
+
+    @Column(nullable = false, length = 16)
+    public String outcome;
+
+    // Campos modificados en JSON: {"campo": {"from": ..., "to": ...}}
+    @Lob
+    @Column(nullable = false)
+    public String changes;
+}
@@ -1,7 +1,10 @@
 package com.library.entity;
 
+import com.library.validation.Isbn;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import java.util.List;
 
 /**
@@ -9,22 +12,40 @@ import java.util.List;
  * Aplica POO: encapsulamiento de atributos y métodos de negocio cohesivos.
  */
 @Entity
-@Table(name = "books")
+@Table(name = "books", uniqueConstraints = {
+    @UniqueConstraint(name = Book.UK_ISBN_KEY, columnNames = {"branch", "isbn_key"})
+})
 public class Book extends PanacheEntityBase {
 
+    /** Nombre de la restricción única sobre la clave ISBN (ver BookResource). */
+    public static final String UK_ISBN_KEY = "uk_books_isbn_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
+    // Sucursal (tenant): Hibernate la asigna al persistir y filtra todas las
+    // consultas por la sucursal de la petición (ver BranchTenantResolver)
+    @TenantId
+    @ColumnDefault("'main'")
+    @Column(nullable = false, length = 32, updatable = false)
+    public String branch;
+
     @Column(nullable = false)
     public String title;
 
     @Column(nullable = false)
     public String author;
 
-    @Column(unique = true, nullable = false)
+    // ISBN normalizado a 13 dígitos sin guiones (ver Isbn.format)
+    @Column(nullable = false)
     public String isbn;
 
+    // Clave canónica ISBN-13 numérica: índice único para búsquedas exactas.
+    // Nullable solo para filas anteriores a la migración (ver IsbnBackfill).
+    @Column(name = "isbn_key")
+    public Long isbnKey;
+
     @Column(name = "total_quantity", nullable = false)
     public int totalQuantity;
 
@@ -36,6 +57,21 @@ public class Book extends PanacheEntityBase {
 
     // ─── Business Methods ─────────────────────────────────────────────────────
 
+    /**
+     * Asigna el ISBN normalizando su representación a la clave canónica ISBN-13.
+     *
+     * @param isbn ISBN-10 o ISBN-13, con o sin guiones
+     * @throws IllegalArgumentException si el ISBN no es válido
+     */
+    public void assignIsbn(String isbn) {
+        long key = Isbn.parse(isbn);
+        if (key == Isbn.INVALID) {
+            throw new IllegalArgumentException("ISBN inválido: " + isbn);
+        }
+        this.isbnKey = key;
+        this.isbn = Isbn.format(key);
+    }
+
     /**
      * Verifica si existe al menos un ejemplar disponible para préstamo.
      *
@@ -57,6 +93,24 @@ public class Book extends PanacheEntityBase {
         this.availableQuantity--;
     }
 
+    /**
+     * Cambia la cantidad total de ejemplares conservando los préstamos en curso:
+     * la cantidad disponible se ajusta en la misma diferencia.
+     *
+     * @param newTotal Nueva cantidad total
+     * @throws IllegalStateException si hay más ejemplares prestados que el nuevo total
+     */
+    public void resizeStock(int newTotal) {
+        int onLoan = this.totalQuantity - this.availableQuantity;
+        if (newTotal < onLoan) {
+            throw new IllegalStateException(
+                "El libro '" + this.title + "' tiene " + onLoan + " ejemplares prestados; "
+                + "la cantidad total no puede ser menor.");
+        }
+        this.totalQuantity = newTotal;
+        this.availableQuantity = newTotal - onLoan;
+    }
+
     /**
      * Incrementa el stock cuando se registra la devolución de un préstamo.
      */
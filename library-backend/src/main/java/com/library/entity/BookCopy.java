@@ -0,0 +1,72 @@
+package com.library.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entidad que representa un ejemplar físico de un libro, identificado por el
+ * código de barras de su etiqueta. El stock agregado del libro
+ * ({@code availableQuantity}) sigue siendo el contador de disponibilidad;
+ * el estado del ejemplar indica cuál está prestado.
+ */
+@Entity
+@Table(name = "book_copies", uniqueConstraints = {
+    @UniqueConstraint(name = BookCopy.UK_BARCODE, columnNames = {"branch", "barcode"})
+}, indexes = {
+    @Index(name = "idx_book_copies_book_status", columnList = "book_id, status")
+})
+public class BookCopy extends PanacheEntityBase {
+
+    /** Nombre de la restricción única sobre el código de barras (ver BookResource). */
+    public static final String UK_BARCODE = "uk_book_copies_barcode";
+
+    /** Estados posibles de un ejemplar. */
+    public enum CopyStatus {
+        AVAILABLE,
+        ON_LOAN
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    // Sucursal (tenant), igual que en Book
+    @TenantId
+    @ColumnDefault("'main'")
+    @Column(nullable = false, length = 32, updatable = false)
+    public String branch;
+
+    @Column(nullable = false, length = 32)
+    public String barcode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    public CopyStatus status = CopyStatus.AVAILABLE;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    public Book book;
+
+    // ─── Business Methods ─────────────────────────────────────────────────────
+
+    /**
+     * Marca el ejemplar como prestado.
+     * Lanza excepción si el ejemplar ya figura como prestado.
+     */
+    public void checkOut() {
+        if (this.status != CopyStatus.AVAILABLE) {
+            throw new IllegalStateException(
+                "El ejemplar " + this.barcode + " ya figura como prestado.");
+        }
+        this.status = CopyStatus.ON_LOAN;
+    }
+
+    /**
+     * Marca el ejemplar como disponible al registrarse su devolución.
+     */
+    public void checkIn() {
+        this.status = CopyStatus.AVAILABLE;
+    }
+}
@@ -0,0 +1,91 @@
+package com.library.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una reserva (hold) de un libro sin ejemplares
+ * disponibles. Las reservas de un mismo libro forman una cola FIFO ordenada
+ * por ID: al devolverse un ejemplar se asigna al primer usuario en espera.
+ */
+@Entity
+@Table(name = "holds", indexes = {
+    @Index(name = "idx_holds_book_status", columnList = "book_id, status, id")
+})
+public class Hold extends PanacheEntityBase {
+
+    /** Estados posibles de una reserva. */
+    public enum HoldStatus {
+        WAITING,
+        FULFILLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    // Sucursal (tenant), igual que en Book
+    @TenantId
+    @ColumnDefault("'main'")
+    @Column(nullable = false, length = 32, updatable = false)
+    public String branch;
+
+    @Column(name = "request_date", nullable = false)
+    public LocalDateTime requestDate;
+
+    @Column(name = "fulfilled_date")
+    public LocalDateTime fulfilledDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    public HoldStatus status = HoldStatus.WAITING;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    public User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    public Book book;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "loan_id")
+    public Loan loan;
+
+    // ─── Business Methods ─────────────────────────────────────────────────────
+
+    /**
+     * Coloca la reserva al final de la cola del libro.
+     *
+     * @param book El libro reservado
+     * @param user El usuario que reserva
+     */
+    public void enqueue(Book book, User user) {
+        if (book.checkAvailability()) {
+            throw new IllegalStateException(
+                "El libro '" + book.title + "' tiene ejemplares disponibles; "
+                + "solicite el préstamo directamente.");
+        }
+        this.book = book;
+        this.user = user;
+        this.requestDate = LocalDateTime.now();
+        this.status = HoldStatus.WAITING;
+    }
+
+    /**
+     * Marca la reserva como atendida por el préstamo indicado.
+     *
+     * @param loan Préstamo generado a partir de la reserva
+     */
+    public void fulfill(Loan loan) {
+        if (this.status != HoldStatus.WAITING) {
+            throw new IllegalStateException("La reserva ya fue atendida previamente.");
+        }
+        this.status = HoldStatus.FULFILLED;
+        this.fulfilledDate = LocalDateTime.now();
+        this.loan = loan;
+    }
+}
@@ -1,7 +1,10 @@
 package com.library.entity;
 
+import com.library.policy.LoanRule;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
 
 /**
@@ -23,9 +26,18 @@ public class Loan extends PanacheEntityBase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
+    // Sucursal (tenant), igual que en Book
+    @TenantId
+    @ColumnDefault("'main'")
+    @Column(nullable = false, length = 32, updatable = false)
+    public String branch;
+
     @Column(name = "loan_date", nullable = false)
     public LocalDate loanDate;
 
+    @Column(name = "due_date")
+    public LocalDate dueDate;
+
     @Column(name = "return_date")
     public LocalDate returnDate;
 
@@ -41,6 +53,11 @@ public class Loan extends PanacheEntityBase {
     @JoinColumn(name = "book_id", nullable = false)
     public Book book;
 
+    // Ejemplar prestado; null en préstamos de libros sin ejemplares registrados
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "copy_id")
+    public BookCopy copy;
+
     // ─── Business Methods ─────────────────────────────────────────────────────
 
     /**
@@ -49,32 +66,51 @@ public class Loan extends PanacheEntityBase {
      *
      * @param book El libro a prestar
      * @param user El usuario que solicita el préstamo
+     * @param rule Regla de préstamo del nivel del usuario
      */
-    public void registerLoan(Book book, User user) {
+    public void registerLoan(Book book, User user, LoanRule rule) {
+        registerLoan(book, null, user, rule);
+    }
+
+    /**
+     * Registra el préstamo de un ejemplar concreto: además de lo anterior,
+     * marca el ejemplar como prestado.
+     *
+     * @param book El libro a prestar
+     * @param copy El ejemplar entregado, o null si el libro no tiene ejemplares registrados
+     * @param user El usuario que solicita el préstamo
+     * @param rule Regla de préstamo del nivel del usuario
+     */
+    public void registerLoan(Book book, BookCopy copy, User user, LoanRule rule) {
         // Validar precondiciones mediante métodos de negocio de cada entidad
         if (!book.checkAvailability()) {
             throw new IllegalStateException(
                 "El libro '" + book.title + "' no tiene ejemplares disponibles.");
         }
-        if (!user.canRequestLoan()) {
+        if (!user.canRequestLoan(rule)) {
             throw new IllegalStateException(
                 "El usuario '" + user.name + "' ha alcanzado el límite de "
-                + User.MAX_LOANS + " préstamos simultáneos.");
+                + rule.maxLoans() + " préstamos simultáneos.");
         }
 
         this.book = book;
+        this.copy = copy;
         this.user = user;
         this.loanDate = LocalDate.now();
+        this.dueDate = this.loanDate.plusDays(rule.loanPeriodDays());
         this.status = LoanStatus.ACTIVE;
 
         // Actualizar estado de entidades relacionadas
         book.updateStock();
-        user.incrementLoans();
+        user.incrementLoans(rule);
+        if (copy != null) {
+            copy.checkOut();
+        }
     }
 
     /**
      * Finaliza el préstamo: marca el estado como RETURNED, registra la fecha
-     * de devolución y restaura el stock del libro.
+     * de devolución, restaura el stock del libro y libera el ejemplar.
      */
     public void finalizeLoan() {
         if (this.status == LoanStatus.RETURNED) {
@@ -87,5 +123,8 @@ public class Loan extends PanacheEntityBase {
         // Restaurar recursos en entidades relacionadas
         this.book.restoreStock();
         this.user.decrementLoans();
+        if (this.copy != null) {
+            this.copy.checkIn();
+        }
     }
 }
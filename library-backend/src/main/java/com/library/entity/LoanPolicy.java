@@ -0,0 +1,27 @@
+package com.library.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+/**
+ * Entidad que representa la política de préstamo de un nivel de usuario
+ * (estudiantes, personal, instituciones…). Define cuántos préstamos
+ * simultáneos se permiten y por cuántos días.
+ */
+@Entity
+@Table(name = "loan_policies")
+public class LoanPolicy extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(unique = true, nullable = false, length = 32)
+    public String tier;
+
+    @Column(name = "max_loans", nullable = false)
+    public int maxLoans;
+
+    @Column(name = "loan_period_days", nullable = false)
+    public int loanPeriodDays;
+}
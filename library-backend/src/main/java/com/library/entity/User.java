@@ -1,7 +1,10 @@
 package com.library.entity;
 
+import com.library.policy.LoanRule;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import java.util.List;
 
 /**
@@ -9,25 +12,47 @@ import java.util.List;
  * Aplica POO: cada instancia encapsula su estado de préstamos activos.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.UK_EMAIL, columnNames = {"branch", "email"}),
+    @UniqueConstraint(name = User.UK_DOCUMENT, columnNames = {"branch", "identification_document"})
+})
 public class User extends PanacheEntityBase {
 
-    /** Límite máximo de préstamos simultáneos permitidos por usuario. */
+    /**
+     * Límite de préstamos simultáneos para los niveles sin política registrada.
+     * Los límites de cada nivel se definen en {@link LoanPolicy}.
+     */
     public static final int MAX_LOANS = 3;
 
+    /** Nombres de las restricciones únicas (ver UserResource). */
+    public static final String UK_EMAIL = "uk_users_email";
+    public static final String UK_DOCUMENT = "uk_users_document";
+
+    /** Nivel asignado a los usuarios que no indican uno. */
+    public static final String DEFAULT_TIER = "STANDARD";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
+    // Sucursal (tenant), igual que en Book
+    @TenantId
+    @ColumnDefault("'main'")
+    @Column(nullable = false, length = 32, updatable = false)
+    public String branch;
+
     @Column(nullable = false)
     public String name;
 
-    @Column(name = "identification_document", unique = true, nullable = false)
+    @Column(name = "identification_document", nullable = false)
     public String identificationDocument;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     public String email;
 
+    @Column(nullable = false, length = 32)
+    public String tier = DEFAULT_TIER;
+
     @Column(name = "active_loans", nullable = false)
     public int activeLoans = 0;
 
@@ -37,24 +62,27 @@ public class User extends PanacheEntityBase {
     // ─── Business Methods ─────────────────────────────────────────────────────
 
     /**
-     * Determina si el usuario puede solicitar un nuevo préstamo.
-     * Un usuario puede tener como máximo {@value #MAX_LOANS} préstamos activos.
+     * Determina si el usuario puede solicitar un nuevo préstamo según la regla
+     * de su nivel.
      *
-     * @return true si activeLoans < MAX_LOANS
+     * @param rule Regla de préstamo del nivel del usuario
+     * @return true si activeLoans < rule.maxLoans()
      */
-    public boolean canRequestLoan() {
-        return this.activeLoans < MAX_LOANS;
+    public boolean canRequestLoan(LoanRule rule) {
+        return this.activeLoans < rule.maxLoans();
     }
 
     /**
      * Incrementa el contador de préstamos activos del usuario al registrar
      * un nuevo préstamo.
+     *
+     * @param rule Regla de préstamo del nivel del usuario
      */
-    public void incrementLoans() {
-        if (!canRequestLoan()) {
+    public void incrementLoans(LoanRule rule) {
+        if (!canRequestLoan(rule)) {
             throw new IllegalStateException(
                 "El usuario " + this.name + " ya tiene el máximo de "
-                + MAX_LOANS + " préstamos activos.");
+                + rule.maxLoans() + " préstamos activos.");
         }
         this.activeLoans++;
     }
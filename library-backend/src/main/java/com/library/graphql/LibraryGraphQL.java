@@ -0,0 +1,178 @@
+package com.library.graphql;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.graphql.DefaultValue;
+import org.eclipse.microprofile.graphql.Description;
+import org.eclipse.microprofile.graphql.GraphQLApi;
+import org.eclipse.microprofile.graphql.Name;
+import org.eclipse.microprofile.graphql.Query;
+import org.eclipse.microprofile.graphql.Source;
+
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.Compartment;
+import com.library.dto.BookDTO;
+import com.library.dto.LoanDTO;
+import com.library.dto.UserDTO;
+import com.library.entity.Book;
+import com.library.entity.Loan;
+import com.library.entity.Loan.LoanStatus;
+import com.library.entity.User;
+import com.library.mapper.EntityMapper;
+import com.library.persistence.ReadOnly;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.panache.common.Sort;
+import jakarta.inject.Inject;
+
+/**
+ * API GraphQL de solo lectura sobre libros, usuarios y préstamos ({@code /graphql}).
+ *
+ * Las relaciones se resuelven por lotes: SmallRye GraphQL entrega a cada
+ * método {@code @Source List<…>} todos los padres del nivel, que se cargan con
+ * una sola consulta {@code in (…)} con join fetch. Una consulta de 100
+ * usuarios con sus préstamos y libros cuesta así un número fijo de sentencias.
+ * Todas las consultas cargan entidades de solo lectura ({@link ReadOnly}).
+ * La sucursal se toma de la cabecera {@code X-Branch}; la complejidad y la
+ * profundidad de las consultas se limitan en application.properties.
+ */
+@GraphQLApi
+@ReadOnly
+public class LibraryGraphQL {
+
+    /** Tamaño máximo de página de las consultas de listado. */
+    static final int MAX_PAGE = 500;
+
+    private static final String LOANS_FETCH = "from Loan l join fetch l.user join fetch l.book";
+
+    @Inject
+    EntityMapper mapper;
+
+    // ─── Consultas ────────────────────────────────────────────────────────────
+
+    @Query
+    @Bulkhead(Compartment.READS)
+    @Description("Libros de la sucursal, ordenados por ID")
+    public List<BookDTO> books(@DefaultValue("0") int offset, @DefaultValue("100") int limit) {
+        return Book.<Book>findAll(Sort.by("id"))
+            .range(Math.max(0, offset), Math.max(0, offset) + pageSize(limit) - 1)
+            .list()
+            .stream()
+            .map(mapper::toBookDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Query
+    @Description("Libro por ID")
+    public BookDTO book(long id) {
+        return mapper.toBookDTO(Book.findById(id));
+    }
+
+    @Query
+    @Bulkhead(Compartment.READS)
+    @Description("Usuarios de la sucursal, ordenados por ID")
+    public List<UserDTO> users(@DefaultValue("0") int offset, @DefaultValue("100") int limit) {
+        return User.<User>findAll(Sort.by("id"))
+            .range(Math.max(0, offset), Math.max(0, offset) + pageSize(limit) - 1)
+            .list()
+            .stream()
+            .map(mapper::toUserDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Query
+    @Description("Usuario por ID")
+    public UserDTO user(long id) {
+        return mapper.toUserDTO(User.findById(id));
+    }
+
+    @Query
+    @Bulkhead(Compartment.READS)
+    @Description("Préstamos de la sucursal, opcionalmente filtrados por estado")
+    public List<LoanDTO> loans(LoanStatus status, @DefaultValue("0") int offset,
+                               @DefaultValue("100") int limit) {
+        PanacheQuery<Loan> query = status == null
+            ? Loan.<Loan>find(LOANS_FETCH + " order by l.id")
+            : Loan.<Loan>find(LOANS_FETCH + " where l.status = ?1 order by l.id", status);
+        return query
+            .range(Math.max(0, offset), Math.max(0, offset) + pageSize(limit) - 1)
+            .list()
+            .stream()
+            .map(mapper::toLoanDTO)
+            .collect(Collectors.toList());
+    }
+
+    // ─── Relaciones (por lotes) ───────────────────────────────────────────────
+
+    @Name("loans")
+    @Description("Préstamos del usuario, opcionalmente filtrados por estado")
+    public List<List<LoanDTO>> userLoans(@Source List<UserDTO> users, LoanStatus status) {
+        Map<Long, List<LoanDTO>> byUser = loansBy("l.user.id", ids(users, u -> u.id), status)
+            .stream()
+            .collect(Collectors.groupingBy(l -> l.userId));
+        return users.stream()
+            .map(u -> byUser.getOrDefault(u.id, List.of()))
+            .collect(Collectors.toList());
+    }
+
+    @Name("loans")
+    @Description("Préstamos del libro, opcionalmente filtrados por estado")
+    public List<List<LoanDTO>> bookLoans(@Source List<BookDTO> books, LoanStatus status) {
+        Map<Long, List<LoanDTO>> byBook = loansBy("l.book.id", ids(books, b -> b.id), status)
+            .stream()
+            .collect(Collectors.groupingBy(l -> l.bookId));
+        return books.stream()
+            .map(b -> byBook.getOrDefault(b.id, List.of()))
+            .collect(Collectors.toList());
+    }
+
+    @Name("user")
+    @Description("Usuario del préstamo")
+    public List<UserDTO> loanUser(@Source List<LoanDTO> loans) {
+        Map<Long, UserDTO> users = byId(User.list("id in ?1", ids(loans, l -> l.userId)),
+            (User u) -> u.id, mapper::toUserDTO);
+        return loans.stream().map(l -> users.get(l.userId)).collect(Collectors.toList());
+    }
+
+    @Name("book")
+    @Description("Libro del préstamo")
+    public List<BookDTO> loanBook(@Source List<LoanDTO> loans) {
+        Map<Long, BookDTO> books = byId(Book.list("id in ?1", ids(loans, l -> l.bookId)),
+            (Book b) -> b.id, mapper::toBookDTO);
+        return loans.stream().map(l -> books.get(l.bookId)).collect(Collectors.toList());
+    }
+
+    // ─── Helpers ──────────────────────────────────────────────────────────────
+
+    private List<LoanDTO> loansBy(String path, Collection<Long> ids, LoanStatus status) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Loan> loans = status == null
+            ? Loan.list(LOANS_FETCH + " where " + path + " in ?1 order by l.id", ids)
+            : Loan.list(LOANS_FETCH + " where " + path + " in ?1 and l.status = ?2 order by l.id", ids, status);
+        return loans.stream().map(mapper::toLoanDTO).collect(Collectors.toList());
+    }
+
+    private static <T> Collection<Long> ids(List<T> parents, Function<T, Long> id) {
+        return parents.stream().map(id).distinct().collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static <E, D> Map<Long, D> byId(List<E> entities, Function<E, Long> id, Function<E, D> toDto) {
+        Map<Long, D> result = new HashMap<>(entities.size() * 2);
+        for (E entity : entities) {
+            result.put(id.apply(entity), toDto.apply(entity));
+        }
+        return result;
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE));
+    }
+}
@@ -1,13 +1,22 @@
 package com.library.mapper;
 
+import com.library.dto.BookCopyDTO;
 import com.library.dto.BookDTO;
+import com.library.dto.HoldDTO;
 import com.library.dto.LoanDTO;
+import com.library.dto.LoanPolicyDTO;
+import com.library.dto.NormalizedLoansDTO;
 import com.library.dto.UserDTO;
 import com.library.entity.Book;
+import com.library.entity.BookCopy;
+import com.library.entity.Hold;
 import com.library.entity.Loan;
+import com.library.entity.LoanPolicy;
 import com.library.entity.User;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.List;
+
 /**
  * Mapper responsable de la conversión entre Entidades y DTOs.
  * Aplica el principio de responsabilidad única (SRP): toda transformación
@@ -20,7 +29,7 @@ public class EntityMapper {
 
     public BookDTO toBookDTO(Book book) {
         if (book == null) return null;
-        return new BookDTO(
+        BookDTO dto = new BookDTO(
             book.id,
             book.title,
             book.author,
@@ -28,24 +37,26 @@ public class EntityMapper {
             book.totalQuantity,
             book.availableQuantity
         );
+        dto.branch = book.branch;
+        return dto;
     }
 
     public Book toBook(BookDTO dto) {
         Book book = new Book();
         book.title = dto.title;
         book.author = dto.author;
-        book.isbn = dto.isbn;
+        book.assignIsbn(dto.isbn);
         book.totalQuantity = dto.totalQuantity;
         book.availableQuantity = dto.totalQuantity; // al crear, disponibles = total
         return book;
     }
 
     public void updateBook(Book book, BookDTO dto) {
+        // Conserva los préstamos en curso; falla (sin modificar el libro) si el total queda por debajo
+        book.resizeStock(dto.totalQuantity);
         book.title = dto.title;
         book.author = dto.author;
-        book.isbn = dto.isbn;
-        book.totalQuantity = dto.totalQuantity;
-        // No sobreescribimos availableQuantity para no perder préstamos en curso
+        book.assignIsbn(dto.isbn);
     }
 
     // ─── User ─────────────────────────────────────────────────────────────────
@@ -57,6 +68,7 @@ public class EntityMapper {
             user.name,
             user.identificationDocument,
             user.email,
+            user.tier,
             user.activeLoans
         );
     }
@@ -66,6 +78,9 @@ public class EntityMapper {
         user.name = dto.name;
         user.identificationDocument = dto.identificationDocument;
         user.email = dto.email;
+        if (dto.tier != null) {
+            user.tier = dto.tier;
+        }
         return user;
     }
 
@@ -73,6 +88,10 @@ public class EntityMapper {
         user.name = dto.name;
         user.identificationDocument = dto.identificationDocument;
         user.email = dto.email;
+        // Si no se indica nivel se conserva el actual
+        if (dto.tier != null) {
+            user.tier = dto.tier;
+        }
     }
 
     // ─── Loan ─────────────────────────────────────────────────────────────────
@@ -82,6 +101,7 @@ public class EntityMapper {
         return new LoanDTO(
             loan.id,
             loan.loanDate,
+            loan.dueDate,
             loan.returnDate,
             loan.status,
             loan.user != null ? loan.user.id : null,
@@ -90,4 +110,83 @@ public class EntityMapper {
             loan.book != null ? loan.book.title : null
         );
     }
+
+    /**
+     * Como {@link #toLoanDTO(Loan)}, incluyendo el código de barras del
+     * ejemplar ya cargado (evita inicializar la relación en los listados).
+     */
+    public LoanDTO toLoanDTO(Loan loan, BookCopy copy) {
+        LoanDTO dto = toLoanDTO(loan);
+        if (dto != null && copy != null) {
+            dto.barcode = copy.barcode;
+        }
+        return dto;
+    }
+
+    public NormalizedLoansDTO toNormalizedLoansDTO(List<Loan> loans) {
+        NormalizedLoansDTO dto = new NormalizedLoansDTO();
+        for (Loan loan : loans) {
+            Long userId = loan.user != null ? loan.user.id : null;
+            Long bookId = loan.book != null ? loan.book.id : null;
+            dto.loans.add(new NormalizedLoansDTO.Entry(
+                loan.id,
+                loan.loanDate,
+                loan.dueDate,
+                loan.returnDate,
+                loan.status,
+                userId,
+                bookId
+            ));
+            if (userId != null && !dto.users.containsKey(userId)) {
+                dto.users.put(userId, loan.user.name);
+            }
+            if (bookId != null && !dto.books.containsKey(bookId)) {
+                dto.books.put(bookId, loan.book.title);
+            }
+        }
+        return dto;
+    }
+
+    // ─── LoanPolicy ───────────────────────────────────────────────────────────
+
+    public LoanPolicyDTO toLoanPolicyDTO(LoanPolicy policy) {
+        if (policy == null) return null;
+        return new LoanPolicyDTO(
+            policy.tier,
+            policy.maxLoans,
+            policy.loanPeriodDays
+        );
+    }
+
+    public void updateLoanPolicy(LoanPolicy policy, LoanPolicyDTO dto) {
+        policy.maxLoans = dto.maxLoans;
+        policy.loanPeriodDays = dto.loanPeriodDays;
+    }
+
+    // ─── Hold ─────────────────────────────────────────────────────────────────
+
+    public HoldDTO toHoldDTO(Hold hold) {
+        if (hold == null) return null;
+        return new HoldDTO(
+            hold.id,
+            hold.requestDate,
+            hold.fulfilledDate,
+            hold.status,
+            hold.user != null ? hold.user.id : null,
+            hold.book != null ? hold.book.id : null,
+            hold.loan != null ? hold.loan.id : null
+        );
+    }
+
+    // ─── BookCopy ─────────────────────────────────────────────────────────────
+
+    public BookCopyDTO toBookCopyDTO(BookCopy copy) {
+        if (copy == null) return null;
+        return new BookCopyDTO(
+            copy.id,
+            copy.barcode,
+            copy.status,
+            copy.book != null ? copy.book.id : null
+        );
+    }
 }
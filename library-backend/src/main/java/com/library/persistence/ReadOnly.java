@@ -0,0 +1,22 @@
+package com.library.persistence;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.interceptor.InterceptorBinding;
+
+/**
+ * Marca un método (o todos los de una clase) como lectura pura: las entidades
+ * que cargue la sesión de Hibernate durante la llamada son de solo lectura
+ * (sin copia para dirty-checking) y la sesión no hace flush.
+ *
+ * No debe usarse en métodos que modifiquen entidades: los cambios sobre
+ * entidades de solo lectura se ignoran en silencio.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
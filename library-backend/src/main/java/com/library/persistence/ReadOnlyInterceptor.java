@@ -0,0 +1,50 @@
+package com.library.persistence;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Aplica {@link ReadOnly}: durante la llamada la sesión carga las entidades
+ * en modo solo lectura y con flush manual; al terminar se restaura el modo
+ * anterior. Se ejecuta después de {@code @Transactional} (PLATFORM_BEFORE + 200)
+ * para actuar sobre la sesión de la transacción, si la hay.
+ *
+ * Con {@code library.read-only.enabled=false} no hace nada, lo que permite
+ * comparar memoria y latencia con y sin el modo de solo lectura.
+ */
+@ReadOnly
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 300)
+public class ReadOnlyInterceptor {
+
+    @Inject
+    Session session;
+
+    @Inject
+    @ConfigProperty(name = "library.read-only.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @AroundInvoke
+    Object readOnly(InvocationContext context) throws Exception {
+        if (!enabled) {
+            return context.proceed();
+        }
+        boolean previousReadOnly = session.isDefaultReadOnly();
+        FlushMode previousFlushMode = session.getHibernateFlushMode();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        try {
+            return context.proceed();
+        } finally {
+            session.setDefaultReadOnly(previousReadOnly);
+            session.setHibernateFlushMode(previousFlushMode);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.policy;
+
+/**
+ * Evento CDI emitido al crear, modificar o eliminar una política de préstamo.
+ *
+ * @param tier Nivel afectado
+ * @param rule Nueva regla, o null si la política fue eliminada
+ */
+public record LoanPolicyChanged(String tier, LoanRule rule) {
+}
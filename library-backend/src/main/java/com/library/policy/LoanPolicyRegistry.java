@@ -0,0 +1,122 @@
+package com.library.policy;
+
+import com.library.entity.LoanPolicy;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Registro en memoria de las reglas de préstamo por nivel de usuario.
+ *
+ * Las políticas se leen de la base de datos al arrancar y se compilan en un
+ * mapa inmutable publicado mediante un campo volatile: las consultas durante
+ * un préstamo no ejecutan SQL ni adquieren bloqueos. Cada cambio confirmado
+ * publica una copia nueva del mapa (copy-on-write); solo las escrituras se
+ * sincronizan entre sí.
+ *
+ * Los cambios hechos a través de otra instancia no generan evento local: cada
+ * instancia vuelve a leer las políticas cada {@code refresh-seconds}, de modo
+ * que con varias instancias un cambio tarda como máximo ese intervalo en
+ * aplicarse en todas.
+ */
+@ApplicationScoped
+public class LoanPolicyRegistry {
+
+    private static final Logger LOG = Logger.getLogger(LoanPolicyRegistry.class.getName());
+
+    // 0 desactiva la recarga periódica (una sola instancia)
+    @Inject
+    @ConfigProperty(name = "library.policy.refresh-seconds", defaultValue = "30")
+    long refreshSeconds;
+
+    private volatile Map<String, LoanRule> rules = Map.of();
+    private ScheduledThreadPoolExecutor refresher;
+
+    void onStart(@Observes StartupEvent event) {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Sin políticas se aplica LoanRule.DEFAULT; no impedimos el arranque
+            LOG.warning("No se pudieron cargar las políticas de préstamo: " + e.getMessage());
+        }
+        if (refreshSeconds > 0) {
+            refresher = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "loan-policy-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Se conservan las reglas actuales hasta la próxima recarga
+            LOG.warning("No se pudieron recargar las políticas de préstamo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a compilar todas las reglas desde la base de datos.
+     */
+    public synchronized void reload() {
+        List<LoanPolicy> policies = QuarkusTransaction.requiringNew()
+            .call(() -> LoanPolicy.<LoanPolicy>listAll());
+        Map<String, LoanRule> compiled = new HashMap<>();
+        for (LoanPolicy policy : policies) {
+            compiled.put(policy.tier, LoanRule.of(policy));
+        }
+        rules = Map.copyOf(compiled);
+    }
+
+    /**
+     * Retorna la regla del nivel indicado, o {@link LoanRule#DEFAULT} si el
+     * nivel no tiene política registrada.
+     */
+    public LoanRule ruleFor(String tier) {
+        LoanRule rule = tier != null ? rules.get(tier) : null;
+        return rule != null ? rule : LoanRule.DEFAULT;
+    }
+
+    /**
+     * Retorna las reglas registradas actualmente.
+     */
+    public Collection<LoanRule> all() {
+        return rules.values();
+    }
+
+    /**
+     * Publica el cambio solo cuando la transacción que lo originó se confirma,
+     * de modo que un rollback no deja reglas que no existen en la base de datos.
+     */
+    synchronized void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) LoanPolicyChanged change) {
+        Map<String, LoanRule> updated = new HashMap<>(rules);
+        if (change.rule() == null) {
+            updated.remove(change.tier());
+        } else {
+            updated.put(change.tier(), change.rule());
+        }
+        rules = Map.copyOf(updated);
+    }
+}
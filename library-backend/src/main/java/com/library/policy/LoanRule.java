@@ -0,0 +1,26 @@
+package com.library.policy;
+
+import com.library.entity.LoanPolicy;
+import com.library.entity.User;
+
+/**
+ * Regla de préstamo compilada a partir de una {@link LoanPolicy}.
+ * Es inmutable, por lo que puede compartirse entre hilos sin sincronización.
+ *
+ * @param tier           Nivel de usuario al que aplica
+ * @param maxLoans       Préstamos simultáneos permitidos
+ * @param loanPeriodDays Duración del préstamo en días
+ */
+public record LoanRule(String tier, int maxLoans, int loanPeriodDays) {
+
+    /** Duración por defecto de un préstamo cuando el nivel no tiene política. */
+    public static final int DEFAULT_LOAN_PERIOD_DAYS = 14;
+
+    /** Regla aplicada a los niveles sin política registrada. */
+    public static final LoanRule DEFAULT =
+        new LoanRule(User.DEFAULT_TIER, User.MAX_LOANS, DEFAULT_LOAN_PERIOD_DAYS);
+
+    public static LoanRule of(LoanPolicy policy) {
+        return new LoanRule(policy.tier, policy.maxLoans, policy.loanPeriodDays);
+    }
+}
@@ -0,0 +1,598 @@
+package com.library.recommend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.library.entity.Loan;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Índice en memoria de co-préstamos: para cada libro, los libros que también
+ * pidieron los usuarios que lo pidieron, con la cantidad de usuarios en común.
+ *
+ * Cada usuario aporta un par por cada dos libros distintos de su historial
+ * (como máximo sus {@code max-history} libros más recientes). El índice:
+ * <ul>
+ *   <li>se construye al arrancar con un recorrido paralelo de {@code loans}
+ *       particionado por usuario, o se carga del último snapshot y se
+ *       reproducen los préstamos posteriores;</li>
+ *   <li>se actualiza en lotes con los préstamos confirmados en esta instancia
+ *       (ver {@link #recordLoan}) y, periódicamente, con los que falten
+ *       (confirmados en otras instancias o descartados por saturación);</li>
+ *   <li>se guarda periódicamente en disco para acelerar el siguiente arranque
+ *       (solo si {@code snapshot.path} apunta a un volumen persistente).</li>
+ * </ul>
+ *
+ * Todas las escrituras (carga, actualizaciones y snapshots) se ejecutan en un
+ * único hilo "coborrow-index"; las consultas leen sin bloquear.
+ *
+ * Los IDs IDENTITY pueden confirmarse fuera de orden, así que no basta con una
+ * marca de agua: se recuerdan los IDs aplicados dentro de una ventana de
+ * {@code reorder-window} IDs bajo el mayor aplicado, y solo los anteriores a
+ * la ventana ({@code floor}) se dan por incluidos.
+ *
+ * El índice es uno solo para todas las sucursales y se indexa por ID de libro:
+ * es correcto porque todas las sucursales comparten la tabla {@code books}
+ * (multi-tenancy por columna discriminadora) y sus IDs no se repiten. Con una
+ * base por sucursal habría que indexar por (sucursal, libro).
+ */
+@ApplicationScoped
+public class CoBorrowIndex {
+
+    private static final Logger LOG = Logger.getLogger(CoBorrowIndex.class.getName());
+
+    private static final int SNAPSHOT_MAGIC = 0x43424958; // "CBIX"
+    private static final int SNAPSHOT_VERSION = 2;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.top-k", defaultValue = "50")
+    int topK;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.max-history", defaultValue = "200")
+    int maxHistory;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.build-threads", defaultValue = "4")
+    int buildThreads;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.max-pending-updates", defaultValue = "10000")
+    int maxPendingUpdates;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.snapshot.path", defaultValue = "data/coborrow-index.bin")
+    String snapshotPath;
+
+    @Inject
+    @ConfigProperty(name = "library.recommend.snapshot.interval-minutes", defaultValue = "10")
+    long snapshotIntervalMinutes;
+
+    // Préstamos pendientes a partir de los cuales se reconstruye en vez de reproducir el snapshot
+    @Inject
+    @ConfigProperty(name = "library.recommend.snapshot.max-replay", defaultValue = "50000")
+    long maxReplay;
+
+    // IDs bajo el mayor aplicado en los que aún puede confirmarse un préstamo atrasado
+    @Inject
+    @ConfigProperty(name = "library.recommend.reorder-window", defaultValue = "10000")
+    long reorderWindow;
+
+    // Recorrido de los préstamos posteriores a floor que aún no se aplicaron (0 = nunca)
+    @Inject
+    @ConfigProperty(name = "library.recommend.catch-up-seconds", defaultValue = "60")
+    long catchUpSeconds;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    /** Préstamos por lote: una consulta de historial por lote. */
+    private static final int BATCH_SIZE = 500;
+
+    private final Map<Long, Neighbors> index = new ConcurrentHashMap<>();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+
+    // Préstamos confirmados pendientes de aplicar: {id, user_id, book_id}
+    private final ConcurrentLinkedQueue<long[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // Solo los modifica el hilo del índice: préstamos con id <= floor ya incluidos
+    // y los IDs aplicados por encima de floor
+    private long floor;
+    private final TreeSet<Long> recent = new TreeSet<>();
+
+    private volatile boolean ready;
+    private volatile boolean dirty;
+    private ScheduledThreadPoolExecutor worker;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        worker = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "coborrow-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // La carga va primero en la cola: las actualizaciones esperan a que termine
+        worker.execute(this::load);
+        if (snapshotIntervalMinutes > 0) {
+            worker.scheduleWithFixedDelay(this::snapshotIfDirty,
+                snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+        }
+        if (catchUpSeconds > 0) {
+            worker.scheduleWithFixedDelay(this::catchUp, catchUpSeconds, catchUpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (worker == null) {
+            return;
+        }
+        worker.execute(this::snapshotIfDirty);
+        worker.shutdown();
+        try {
+            worker.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ─── Consultas ────────────────────────────────────────────────────────────
+
+    /** Si el índice ya terminó la carga inicial. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Libros co-prestados con el indicado, de mayor a menor cuenta.
+     */
+    public List<Neighbor> related(long bookId, int limit) {
+        Neighbors neighbors = index.get(bookId);
+        return neighbors == null ? List.of() : neighbors.top(limit);
+    }
+
+    /** Capacidad de vecinos por libro: el doble del top-K para que la poda sea estable. */
+    public int capacity() {
+        return Math.max(1, topK) * 2;
+    }
+
+    // ─── Actualización incremental ────────────────────────────────────────────
+
+    /**
+     * Registra un préstamo recién persistido. Se encola cuando la transacción
+     * se confirma y el hilo del índice lo aplica en el siguiente lote; el hilo
+     * de la petición solo registra la sincronización. Si hay demasiadas
+     * actualizaciones pendientes el préstamo se descarta y lo recupera la
+     * siguiente pasada de {@link #catchUp}.
+     */
+    public void recordLoan(Loan loan) {
+        if (worker == null) {
+            return;
+        }
+        long[] entry = {loan.id, loan.user.id, loan.book.id};
+        if (transactions.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            submit(entry);
+            return;
+        }
+        transactions.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    submit(entry);
+                }
+            }
+        });
+    }
+
+    private void submit(long[] entry) {
+        if (pendingCount.incrementAndGet() > maxPendingUpdates) {
+            pendingCount.decrementAndGet();
+            if (Long.bitCount(droppedUpdates.incrementAndGet()) == 1) {
+                LOG.warning("Índice de co-préstamos saturado: " + droppedUpdates.get()
+                    + " préstamos diferidos a la siguiente pasada de recuperación.");
+            }
+            return;
+        }
+        pending.add(entry);
+        if (drainScheduled.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    /** Aplica en lotes los préstamos encolados por {@link #submit}. */
+    private void drain() {
+        drainScheduled.set(false);
+        List<long[]> batch = new ArrayList<>(BATCH_SIZE);
+        long[] entry;
+        while ((entry = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(entry);
+            if (batch.size() == BATCH_SIZE || pending.isEmpty()) {
+                applySafely(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            applySafely(batch);
+        }
+    }
+
+    private void applySafely(List<long[]> batch) {
+        if (!ready) {
+            return; // la carga falló: el índice no se usa
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            applyBatch(connection, batch);
+        } catch (SQLException e) {
+            LOG.warning("No se pudo actualizar el índice con " + batch.size() + " préstamos: "
+                + e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica los préstamos posteriores a floor que aún no se aplicaron:
+     * confirmados en otras instancias, confirmados tarde fuera de orden o
+     * descartados por saturación.
+     */
+    private void catchUp() {
+        if (!ready) {
+            return;
+        }
+        try {
+            int applied = replay();
+            if (applied > 0) {
+                LOG.fine("Índice de co-préstamos: " + applied + " préstamos recuperados.");
+            }
+        } catch (SQLException e) {
+            LOG.warning("No se pudo recuperar préstamos para el índice de co-préstamos: " + e.getMessage());
+        }
+    }
+
+    private boolean isApplied(long loanId) {
+        return loanId <= floor || recent.contains(loanId);
+    }
+
+    /** Recuerda el préstamo aplicado y adelanta floor hasta el borde de la ventana. */
+    private void markApplied(long loanId) {
+        recent.add(loanId);
+        long limit = recent.last() - reorderWindow;
+        if (limit > floor) {
+            floor = limit;
+            recent.headSet(floor, true).clear();
+        }
+    }
+
+    /**
+     * Aplica un lote de préstamos {id, user_id, book_id} en orden de ID, con
+     * una sola consulta de historial para todos sus usuarios. El historial de
+     * un préstamo son los libros que el usuario pidió por primera vez antes que
+     * él, del pedido más recientemente al más antiguo (como máximo
+     * {@code max-history}); si el libro ya estaba en su historial no suma pares.
+     *
+     * @return cantidad de préstamos aplicados (sin contar los ya aplicados)
+     */
+    private int applyBatch(Connection connection, List<long[]> batch) throws SQLException {
+        List<long[]> fresh = new ArrayList<>(batch.size());
+        Set<Long> users = new LinkedHashSet<>();
+        for (long[] loan : batch) {
+            if (!isApplied(loan[0])) {
+                fresh.add(loan);
+                users.add(loan[1]);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        fresh.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        // Por usuario: {book_id, primer id, último id}, del último préstamo al más antiguo
+        Map<Long, List<long[]>> histories = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(users.size(), "?"));
+        try (PreparedStatement query = connection.prepareStatement(
+                "select user_id, book_id, min(id), max(id) from loans where user_id in (" + placeholders + ") "
+                + "group by user_id, book_id order by user_id, max(id) desc")) {
+            int i = 1;
+            for (Long user : users) {
+                query.setLong(i++, user);
+            }
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    histories.computeIfAbsent(rows.getLong(1), k -> new ArrayList<>())
+                        .add(new long[] {rows.getLong(2), rows.getLong(3), rows.getLong(4)});
+                }
+            }
+        }
+
+        long[] history = new long[maxHistory];
+        for (long[] loan : fresh) {
+            long loanId = loan[0];
+            long bookId = loan[2];
+            int size = 0;
+            boolean repeated = false;
+            for (long[] row : histories.getOrDefault(loan[1], List.of())) {
+                if (row[1] >= loanId) {
+                    continue; // pedido por primera vez con este préstamo o después
+                }
+                if (row[0] == bookId) {
+                    repeated = true;
+                    break;
+                }
+                if (size < maxHistory) {
+                    history[size++] = row[0];
+                }
+            }
+            if (!repeated) {
+                for (int i = 0; i < size; i++) {
+                    addPair(bookId, history[i]);
+                }
+            }
+            markApplied(loanId);
+        }
+        dirty = true;
+        return fresh.size();
+    }
+
+    private void addPair(long a, long b) {
+        index.computeIfAbsent(a, k -> new Neighbors(capacity())).increment(b, 1);
+        index.computeIfAbsent(b, k -> new Neighbors(capacity())).increment(a, 1);
+    }
+
+    // ─── Carga inicial ────────────────────────────────────────────────────────
+
+    private void load() {
+        long started = System.nanoTime();
+        try {
+            long upper;
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from loans")) {
+                rows.next();
+                upper = rows.getLong(1);
+            }
+            String source;
+            if (readSnapshot() && upper - floor <= maxReplay) {
+                source = "snapshot + " + replay() + " préstamos reproducidos";
+            } else {
+                index.clear();
+                recent.clear();
+                // Lo anterior a la ventana se recorre en bloque; la ventana se aplica
+                // por préstamo para recordar qué IDs ya están incluidos
+                floor = Math.max(0, upper - reorderWindow);
+                scan(floor);
+                source = "recorrido de loans + " + replay() + " préstamos de la ventana";
+            }
+            dirty = true;
+            ready = true;
+            LOG.info("Índice de co-préstamos listo (" + source + "): " + index.size() + " libros en "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms.");
+        } catch (Exception e) {
+            LOG.severe("No se pudo construir el índice de co-préstamos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recorre los préstamos hasta {@code upper} en paralelo: cada hilo procesa
+     * los usuarios con {@code user_id mod N = p}, así el historial completo de
+     * un usuario lo ve un único hilo.
+     */
+    private void scan(long upper) throws Exception {
+        int partitions = Math.max(1, buildThreads);
+        ExecutorService pool = Executors.newFixedThreadPool(partitions, r -> {
+            Thread thread = new Thread(r, "coborrow-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> parts = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                parts.add(pool.submit(() -> {
+                    scanPartition(partition, partitions, upper);
+                    return null;
+                }));
+            }
+            for (Future<?> part : parts) {
+                part.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void scanPartition(int partition, int partitions, long upper) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement query = connection.prepareStatement(
+                 "select user_id, book_id, max(id) as last_id from loans "
+                 + "where id <= ? and mod(user_id, ?) = ? "
+                 + "group by user_id, book_id order by user_id, last_id desc")) {
+            query.setLong(1, upper);
+            query.setInt(2, partitions);
+            query.setInt(3, partition);
+            // Connector/J: lectura en streaming en lugar de cargar todo el resultado en memoria
+            query.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rows = query.executeQuery()) {
+                long[] history = new long[maxHistory];
+                int size = 0;
+                long currentUser = Long.MIN_VALUE;
+                while (rows.next()) {
+                    long userId = rows.getLong(1);
+                    if (userId != currentUser) {
+                        addHistory(history, size);
+                        currentUser = userId;
+                        size = 0;
+                    }
+                    if (size < maxHistory) {
+                        history[size++] = rows.getLong(2);
+                    }
+                }
+                addHistory(history, size);
+            }
+        }
+    }
+
+    private void addHistory(long[] books, int size) {
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                addPair(books[i], books[j]);
+            }
+        }
+    }
+
+    /**
+     * Aplica en lotes los préstamos con ID mayor que floor que aún no se
+     * aplicaron.
+     *
+     * @return cantidad de préstamos aplicados
+     */
+    private int replay() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            List<long[]> missing = new ArrayList<>();
+            try (PreparedStatement query = connection.prepareStatement(
+                    "select id, user_id, book_id from loans where id > ? order by id")) {
+                query.setLong(1, floor);
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        long id = rows.getLong(1);
+                        if (!isApplied(id)) {
+                            missing.add(new long[] {id, rows.getLong(2), rows.getLong(3)});
+                        }
+                    }
+                }
+            }
+            int applied = 0;
+            for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+                applied += applyBatch(connection, missing.subList(from, Math.min(from + BATCH_SIZE, missing.size())));
+            }
+            return applied;
+        }
+    }
+
+    // ─── Snapshots ────────────────────────────────────────────────────────────
+
+    private void snapshotIfDirty() {
+        if (!ready || !dirty) {
+            return;
+        }
+        dirty = false;
+        Path target = Path.of(snapshotPath);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "coborrow", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(floor);
+                out.writeInt(recent.size());
+                for (long id : recent) {
+                    out.writeLong(id);
+                }
+                out.writeInt(index.size());
+                for (Map.Entry<Long, Neighbors> entry : index.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            }
+            // Reemplazo atómico: un arranque nunca lee un snapshot a medio escribir
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            LOG.warning("No se pudo guardar el snapshot del índice de co-préstamos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true si se cargó un snapshot válido
+     */
+    private boolean readSnapshot() {
+        Path source = Path.of(snapshotPath);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                LOG.warning("Snapshot del índice de co-préstamos con formato desconocido; se reconstruye.");
+                return false;
+            }
+            long mark = in.readLong();
+            int applied = in.readInt();
+            for (int i = 0; i < applied; i++) {
+                recent.add(in.readLong());
+            }
+            int books = in.readInt();
+            for (int i = 0; i < books; i++) {
+                Neighbors neighbors = new Neighbors(capacity());
+                index.put(in.readLong(), neighbors);
+                int size = in.readInt();
+                for (int j = 0; j < size; j++) {
+                    neighbors.increment(in.readLong(), in.readInt());
+                }
+            }
+            floor = mark;
+            return true;
+        } catch (IOException e) {
+            LOG.warning("Snapshot del índice de co-préstamos ilegible; se reconstruye: " + e.getMessage());
+            index.clear();
+            recent.clear();
+            return false;
+        }
+    }
+}
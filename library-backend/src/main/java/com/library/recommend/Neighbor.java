@@ -0,0 +1,10 @@
+package com.library.recommend;
+
+/**
+ * Libro vecino en el índice de co-préstamos.
+ *
+ * @param bookId ID del libro vecino
+ * @param count  cantidad (aproximada) de usuarios que pidieron ambos libros
+ */
+public record Neighbor(long bookId, int count) {
+}
@@ -0,0 +1,88 @@
+package com.library.recommend;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Vecinos de un libro con sus cuentas de co-préstamo, en arreglos primitivos.
+ *
+ * La cantidad de vecinos está acotada: con la capacidad llena, un vecino
+ * nuevo reemplaza al de menor cuenta y hereda esa cuenta (algoritmo
+ * Space-Saving). Así los vecinos frecuentes nunca se pierden y la memoria
+ * por libro es fija; las cuentas de los vecinos poco frecuentes son una cota
+ * superior, no un valor exacto.
+ */
+final class Neighbors {
+
+    private static final int INITIAL_SIZE = 8;
+
+    private final int capacity;
+    private long[] ids;
+    private int[] counts;
+    private int size;
+
+    Neighbors(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.ids = new long[Math.min(INITIAL_SIZE, this.capacity)];
+        this.counts = new int[ids.length];
+    }
+
+    synchronized void increment(long bookId, int delta) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == bookId) {
+                counts[i] += delta;
+                return;
+            }
+        }
+        if (size < capacity) {
+            if (size == ids.length) {
+                int grown = Math.min(capacity, ids.length * 2);
+                ids = Arrays.copyOf(ids, grown);
+                counts = Arrays.copyOf(counts, grown);
+            }
+            ids[size] = bookId;
+            counts[size] = delta;
+            size++;
+            return;
+        }
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        ids[min] = bookId;
+        counts[min] += delta;
+    }
+
+    /**
+     * Vecinos de mayor cuenta, de mayor a menor.
+     */
+    synchronized List<Neighbor> top(int limit) {
+        List<Neighbor> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(new Neighbor(ids[i], counts[i]));
+        }
+        all.sort(Comparator.comparingInt(Neighbor::count).reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // ─── Snapshot ─────────────────────────────────────────────────────────────
+
+    /** Escribe cantidad de vecinos y pares (ID, cuenta). */
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(ids[i]);
+            out.writeInt(counts[i]);
+        }
+    }
+}
@@ -1,28 +1,50 @@
 package com.library.resource;
 
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import com.library.audit.AuditLog;
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.Compartment;
+import com.library.dto.BookCopyDTO;
 import com.library.dto.BookDTO;
+import com.library.dto.HoldDTO;
+import com.library.dto.RecommendationDTO;
 import com.library.entity.Book;
+import com.library.entity.BookCopy;
+import com.library.entity.Hold;
 import com.library.entity.Loan;
+import com.library.entity.User;
 import com.library.mapper.EntityMapper;
+import com.library.persistence.ReadOnly;
+import com.library.service.HoldService;
+import com.library.service.LoanService;
+import com.library.service.RecommendationService;
+import com.library.validation.Isbn;
 
+import io.quarkus.panache.common.Sort;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -38,10 +60,34 @@ public class BookResource {
 
     private static final Logger LOG = Logger.getLogger(BookResource.class.getName());
 
+    private static final Map<String, ErrorResponse> CREATE_CONFLICTS = Map.of(
+        Book.UK_ISBN_KEY, new ErrorResponse("Ya existe un libro con ese ISBN", "isbn"));
+
+    private static final Map<String, ErrorResponse> UPDATE_CONFLICTS = Map.of(
+        Book.UK_ISBN_KEY, new ErrorResponse("El ISBN ya está registrado en otro libro", "isbn"));
+
+    private static final Map<String, ErrorResponse> COPY_CONFLICTS = Map.of(
+        BookCopy.UK_BARCODE, new ErrorResponse("Ya existe un ejemplar con ese código de barras", "barcode"));
+
     @Inject
     EntityMapper mapper;
 
+    @Inject
+    AuditLog audit;
+
+    @Inject
+    RecommendationService recommendations;
+
+    @Inject
+    HoldService holdService;
+
+    @Inject
+    LoanService loanService;
+
     @GET
+    @Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
+    @Bulkhead(Compartment.READS)
+    @ReadOnly
     @Operation(summary = "Listar todos los libros")
     public List<BookDTO> listAll() {
         return Book.<Book>listAll()
@@ -52,6 +98,7 @@ public class BookResource {
 
     @GET
     @Path("/{id}")
+    @ReadOnly
     @Operation(summary = "Obtener libro por ID")
     public Response getById(@PathParam("id") Long id) {
         Book book = Book.findById(id);
@@ -63,20 +110,43 @@ public class BookResource {
         return Response.ok(mapper.toBookDTO(book)).build();
     }
 
+    @GET
+    @Path("/isbn/{isbn}")
+    @ReadOnly
+    @Operation(summary = "Obtener libro por ISBN (ISBN-10 o ISBN-13, con o sin guiones)")
+    public Response getByIsbn(@PathParam("isbn") String isbn) {
+        long key = Isbn.parse(isbn);
+        if (key == Isbn.INVALID) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(new ErrorResponse("ISBN inválido", "isbn"))
+                .build();
+        }
+        Book book = Book.find("isbnKey", key).firstResult();
+        if (book == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Libro no encontrado"))
+                .build();
+        }
+        return Response.ok(mapper.toBookDTO(book)).build();
+    }
+
     @POST
     @Transactional
     @Operation(summary = "Registrar un nuevo libro")
     public Response create(@Valid BookDTO dto) {
-        // Validar ISBN único
-        if (Book.find("isbn", dto.isbn).firstResult() != null) {
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new ErrorResponse("Ya existe un libro con ese ISBN"))
-                .build();
-        }
+        // La unicidad del ISBN la garantiza el índice uk_books_isbn_key
         Book book = mapper.toBook(dto);
-        Book.persist(book);
+        try {
+            book.persistAndFlush();
+        } catch (PersistenceException e) {
+            Response conflict = UniqueConstraints.conflict(e, CREATE_CONFLICTS);
+            if (conflict == null) throw e;
+            return conflict;
+        }
+        BookDTO created = mapper.toBookDTO(book);
+        audit.record("Book", book.id, "CREATE", null, created);
         return Response.status(Response.Status.CREATED)
-            .entity(mapper.toBookDTO(book))
+            .entity(created)
             .build();
     }
 
@@ -85,14 +155,44 @@ public class BookResource {
     @Transactional
     @Operation(summary = "Actualizar datos de un libro")
     public Response update(@PathParam("id") Long id, @Valid BookDTO dto) {
-        Book book = Book.findById(id);
+        // Bloqueado como en préstamos y devoluciones: el stock cambia aquí
+        Book book = Book.findById(id, LockModeType.PESSIMISTIC_WRITE);
         if (book == null) {
             return Response.status(Response.Status.NOT_FOUND)
                 .entity(new ErrorResponse("Libro no encontrado"))
                 .build();
         }
-        mapper.updateBook(book, dto);
-        return Response.ok(mapper.toBookDTO(book)).build();
+        if (dto.totalQuantity < book.totalQuantity) {
+            long copies = BookCopy.count("book.id", id);
+            if (dto.totalQuantity < copies) {
+                return Response.status(Response.Status.CONFLICT)
+                    .entity(new ErrorResponse("El libro tiene " + copies + " ejemplares registrados; "
+                        + "retírelos antes de reducir la cantidad total", "totalQuantity"))
+                    .build();
+            }
+        }
+        BookDTO before = mapper.toBookDTO(book);
+        try {
+            mapper.updateBook(book, dto);
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(e.getMessage(), "totalQuantity"))
+                .build();
+        }
+        try {
+            Book.flush();
+        } catch (PersistenceException e) {
+            Response conflict = UniqueConstraints.conflict(e, UPDATE_CONFLICTS);
+            if (conflict == null) throw e;
+            return conflict;
+        }
+        if (book.availableQuantity > before.availableQuantity) {
+            // El stock nuevo pasa primero por la cola de reservas
+            loanService.allocateHolds(book);
+        }
+        BookDTO updated = mapper.toBookDTO(book);
+        audit.record("Book", id, "UPDATE", before, updated);
+        return Response.ok(updated).build();
     }
 
     @DELETE
@@ -106,13 +206,148 @@ public class BookResource {
                 .entity(new ErrorResponse("Libro no encontrado"))
                 .build();
         }
-        // Liberar el contador de préstamos de los usuarios con préstamo activo
-        List<Loan> activeLoans = Loan.list("book.id = ?1 and status = ?2",
+        BookDTO before = mapper.toBookDTO(book);
+        // Liberar en una sola sentencia el contador de los usuarios con préstamo
+        // activo del libro (un usuario solo puede tener un préstamo activo por libro)
+        User.update("activeLoans = activeLoans - 1 where activeLoans > 0 and id in "
+                + "(select l.user.id from Loan l where l.book.id = ?1 and l.status = ?2)",
                 id, Loan.LoanStatus.ACTIVE);
-        for (Loan loan : activeLoans) {
-            loan.user.decrementLoans();
+        // Borrado masivo: evita cargar y eliminar cada préstamo vía CascadeType.ALL
+        Hold.delete("book.id", id);
+        Loan.delete("book.id", id);
+        BookCopy.delete("book.id", id);
+        Book.delete("id", id);
+        audit.record("Book", id, "DELETE", before, null);
+        return Response.noContent().build();
+    }
+
+    @GET
+    @Path("/{id}/copies")
+    @ReadOnly
+    @Operation(summary = "Listar los ejemplares físicos de un libro")
+    public List<BookCopyDTO> listCopies(@PathParam("id") Long id) {
+        return BookCopy.<BookCopy>list("book.id", Sort.by("barcode"), id)
+            .stream()
+            .map(mapper::toBookCopyDTO)
+            .collect(Collectors.toList());
+    }
+
+    @POST
+    @Path("/{id}/copies")
+    @Transactional
+    @Operation(summary = "Registrar un ejemplar físico del libro por su código de barras")
+    public Response addCopy(@PathParam("id") Long id, @Valid BookCopyDTO dto) {
+        Book book = Book.findById(id, LockModeType.PESSIMISTIC_WRITE);
+        if (book == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Libro no encontrado"))
+                .build();
+        }
+        // El ejemplar (libre) etiqueta una unidad disponible sin etiquetar; si no
+        // queda ninguna, es una unidad nueva y amplía el stock
+        long copies = BookCopy.count("book.id", id);
+        long freeCopies = BookCopy.count("book.id = ?1 and status = ?2", id, BookCopy.CopyStatus.AVAILABLE);
+        boolean grows = copies >= book.totalQuantity || book.availableQuantity <= freeCopies;
+        if (grows) {
+            book.resizeStock(book.totalQuantity + 1);
+        }
+        BookCopy copy = new BookCopy();
+        copy.barcode = dto.barcode;
+        copy.book = book;
+        // La unicidad del código la garantiza el índice uk_book_copies_barcode
+        try {
+            copy.persistAndFlush();
+        } catch (PersistenceException e) {
+            Response conflict = UniqueConstraints.conflict(e, COPY_CONFLICTS);
+            if (conflict == null) throw e;
+            return conflict;
+        }
+        if (grows) {
+            // La unidad nueva pasa primero por la cola de reservas
+            loanService.allocateHolds(book);
+        }
+        BookCopyDTO created = mapper.toBookCopyDTO(copy);
+        audit.record("BookCopy", copy.id, "CREATE", null, created);
+        return Response.status(Response.Status.CREATED)
+            .entity(created)
+            .build();
+    }
+
+    @DELETE
+    @Path("/{id}/copies/{barcode}")
+    @Transactional
+    @Operation(summary = "Retirar un ejemplar disponible (reduce la cantidad total)")
+    public Response removeCopy(@PathParam("id") Long id, @PathParam("barcode") String barcode) {
+        Book book = Book.findById(id, LockModeType.PESSIMISTIC_WRITE);
+        BookCopy copy = book == null ? null : BookCopy.<BookCopy>find(
+                "book.id = ?1 and barcode = ?2", id, barcode).firstResult();
+        if (copy == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Ejemplar no encontrado"))
+                .build();
+        }
+        if (copy.status != BookCopy.CopyStatus.AVAILABLE) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse("El ejemplar está prestado; registre su devolución antes de retirarlo"))
+                .build();
         }
-        book.delete(); // CascadeType.ALL elimina los préstamos asociados
+        BookCopyDTO before = mapper.toBookCopyDTO(copy);
+        try {
+            book.resizeStock(book.totalQuantity - 1);
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        }
+        // El historial conserva el préstamo, sin referencia al ejemplar retirado
+        Loan.update("copy = null where copy.id = ?1", copy.id);
+        copy.delete();
+        audit.record("BookCopy", before.id, "DELETE", before, null);
         return Response.noContent().build();
     }
+
+    @GET
+    @Path("/{id}/holds")
+    @Operation(summary = "Listar la cola de reservas en espera de un libro")
+    public List<HoldDTO> listHolds(@PathParam("id") Long id) {
+        return holdService.listQueue(id);
+    }
+
+    @POST
+    @Path("/{id}/holds")
+    @Operation(summary = "Reservar un libro sin ejemplares disponibles")
+    public Response placeHold(@PathParam("id") Long id, @Valid HoldDTO dto) {
+        try {
+            HoldDTO created = holdService.placeHold(id, dto);
+            return Response.status(Response.Status.CREATED).entity(created).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            LOG.severe("Error inesperado al reservar libro id=" + id + ": " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(new ErrorResponse("Error interno del servidor"))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/{id}/related")
+    @Operation(summary = "Libros que también pidieron quienes pidieron este libro")
+    public Response listRelated(@PathParam("id") Long id,
+                                @QueryParam("limit") @DefaultValue("10") @Min(1) @Max(50) int limit) {
+        try {
+            List<RecommendationDTO> result = recommendations.relatedBooks(id, limit);
+            return Response.ok(result).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package com.library.resource;
+
+import com.library.bulkhead.BulkheadRejectedException;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Traduce el rechazo de un bulkhead a 503 Service Unavailable con
+ * {@code Retry-After}, sin registrar error: es una descarga de carga esperada.
+ */
+@Provider
+public class BulkheadRejectedMapper implements ExceptionMapper<BulkheadRejectedException> {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    public Response toResponse(BulkheadRejectedException e) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", RETRY_AFTER_SECONDS)
+            .entity(new ErrorResponse(e.getMessage()))
+            .build();
+    }
+}
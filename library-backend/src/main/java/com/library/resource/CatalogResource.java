@@ -0,0 +1,87 @@
+package com.library.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.library.branch.BranchDirectory;
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.Compartment;
+import com.library.dto.BookDTO;
+import com.library.entity.Book;
+import com.library.validation.Isbn;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Resource REST del catálogo conjunto de todas las sucursales.
+ *
+ * Las consultas de entidades quedan limitadas a la sucursal de la petición;
+ * este endpoint usa SQL nativo, que no aplica ese filtro, para buscar en todas
+ * las sucursales con una sola consulta ordenada y limitada.
+ */
+@Path("/api/catalog")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Catalog", description = "Búsqueda en el catálogo de todas las sucursales")
+public class CatalogResource {
+
+    private static final String COLUMNS =
+        "select id, branch, title, author, isbn, total_quantity, available_quantity from books ";
+
+    @Inject
+    BranchDirectory branches;
+
+    @GET
+    @Path("/books")
+    @Bulkhead(Compartment.READS)
+    @Operation(summary = "Buscar libros por título, autor o ISBN en todas las sucursales")
+    public List<BookDTO> search(@QueryParam("q") @NotBlank @Size(max = 255) String q,
+                                @QueryParam("limit") @DefaultValue("50") @Min(1) @Max(200) int limit) {
+        Query query;
+        long isbnKey = Isbn.parse(q);
+        if (isbnKey != Isbn.INVALID) {
+            // Búsqueda exacta sobre el índice (branch, isbn_key)
+            query = Book.getEntityManager().createNativeQuery(
+                COLUMNS + "where branch in (?1) and isbn_key = ?2 order by branch")
+                .setParameter(1, branches.all())
+                .setParameter(2, isbnKey);
+        } else {
+            String pattern = "%" + q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            query = Book.getEntityManager().createNativeQuery(
+                COLUMNS + "where branch in (?1) and (title like ?2 or author like ?2) "
+                + "order by title, branch")
+                .setParameter(1, branches.all())
+                .setParameter(2, pattern);
+        }
+        query.setMaxResults(limit);
+
+        List<BookDTO> result = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] c = (Object[]) row;
+            BookDTO dto = new BookDTO(
+                ((Number) c[0]).longValue(),
+                (String) c[2],
+                (String) c[3],
+                (String) c[4],
+                ((Number) c[5]).intValue(),
+                ((Number) c[6]).intValue()
+            );
+            dto.branch = (String) c[1];
+            result.add(dto);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.library.resource;
+
+import java.util.List;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.library.bulkhead.Bulkheads;
+import com.library.diagnostics.SqlProfiler;
+import com.library.dto.BulkheadStatsDTO;
+import com.library.dto.SlowRequestDTO;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Resource REST de diagnóstico: expone las peticiones lentas registradas por
+ * el {@link SqlProfiler} y el estado de los {@link Bulkheads}. Las peticiones
+ * lentas incluyen SQL y solo responden si {@code library.diagnostics.enabled}
+ * está activo (por defecto únicamente en desarrollo); el estado de los
+ * bulkheads son solo contadores y está siempre disponible para el monitoreo.
+ */
+@Path("/api/diagnostics")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Diagnostics", description = "Perfilado SQL y estado de los bulkheads")
+public class DiagnosticsResource {
+
+    @Inject
+    SqlProfiler profiler;
+
+    @Inject
+    Bulkheads bulkheads;
+
+    @Inject
+    @ConfigProperty(name = "library.diagnostics.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @GET
+    @Path("/slow-requests")
+    @Operation(summary = "Listar las peticiones lentas más recientes con su perfil SQL")
+    public Response slowRequests() {
+        if (!enabled) {
+            return notFound();
+        }
+        List<SlowRequestDTO> slow = profiler.slowRequests();
+        return Response.ok(slow).build();
+    }
+
+    @DELETE
+    @Path("/slow-requests")
+    @Operation(summary = "Vaciar el registro de peticiones lentas")
+    public Response clear() {
+        if (!enabled) {
+            return notFound();
+        }
+        profiler.clear();
+        return Response.noContent().build();
+    }
+
+    @GET
+    @Path("/bulkheads")
+    @Operation(summary = "Estado de los compartimentos de concurrencia (en curso, en cola, rechazos)")
+    public Response bulkheads() {
+        List<BulkheadStatsDTO> stats = bulkheads.stats();
+        return Response.ok(stats).build();
+    }
+
+    private static Response notFound() {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity(new ErrorResponse("Recurso no encontrado"))
+            .build();
+    }
+}
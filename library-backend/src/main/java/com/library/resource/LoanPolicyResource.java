@@ -0,0 +1,100 @@
+package com.library.resource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.library.audit.AuditLog;
+import com.library.dto.LoanPolicyDTO;
+import com.library.entity.LoanPolicy;
+import com.library.mapper.EntityMapper;
+import com.library.persistence.ReadOnly;
+import com.library.policy.LoanPolicyChanged;
+import com.library.policy.LoanRule;
+
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Resource REST para gestión de las políticas de préstamo por nivel de usuario.
+ * Cada cambio confirmado se publica en el {@link com.library.policy.LoanPolicyRegistry}.
+ */
+@Path("/api/policies")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Policies", description = "Políticas de préstamo por nivel de usuario")
+public class LoanPolicyResource {
+
+    private static final String TIER_PATTERN = "^[A-Z0-9_]{1,32}$";
+
+    @Inject
+    EntityMapper mapper;
+
+    @Inject
+    Event<LoanPolicyChanged> policyChanged;
+
+    @Inject
+    AuditLog audit;
+
+    @GET
+    @ReadOnly
+    @Operation(summary = "Listar las políticas de préstamo")
+    public List<LoanPolicyDTO> listAll() {
+        return LoanPolicy.<LoanPolicy>listAll()
+            .stream()
+            .map(mapper::toLoanPolicyDTO)
+            .collect(Collectors.toList());
+    }
+
+    @PUT
+    @Path("/{tier}")
+    @Transactional
+    @Operation(summary = "Crear o actualizar la política de un nivel")
+    public Response upsert(@PathParam("tier") @Pattern(regexp = TIER_PATTERN) String tier,
+                           @Valid LoanPolicyDTO dto) {
+        LoanPolicy policy = LoanPolicy.find("tier", tier).firstResult();
+        boolean created = policy == null;
+        LoanPolicyDTO before = created ? null : mapper.toLoanPolicyDTO(policy);
+        if (created) {
+            policy = new LoanPolicy();
+            policy.tier = tier;
+        }
+        mapper.updateLoanPolicy(policy, dto);
+        LoanPolicy.persist(policy);
+        policyChanged.fire(new LoanPolicyChanged(tier, LoanRule.of(policy)));
+        LoanPolicyDTO after = mapper.toLoanPolicyDTO(policy);
+        audit.record("LoanPolicy", tier, created ? "CREATE" : "UPDATE", before, after);
+        return Response.status(created ? Response.Status.CREATED : Response.Status.OK)
+            .entity(after)
+            .build();
+    }
+
+    @DELETE
+    @Path("/{tier}")
+    @Transactional
+    @Operation(summary = "Eliminar la política de un nivel (se aplica la política por defecto)")
+    public Response delete(@PathParam("tier") @Pattern(regexp = TIER_PATTERN) String tier) {
+        if (LoanPolicy.delete("tier", tier) == 0) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse("Política no encontrada"))
+                .build();
+        }
+        policyChanged.fire(new LoanPolicyChanged(tier, null));
+        audit.record("LoanPolicy", tier, "DELETE", null, null);
+        return Response.noContent().build();
+    }
+}
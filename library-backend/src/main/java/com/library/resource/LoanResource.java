@@ -6,7 +6,12 @@ import java.util.logging.Logger;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.BulkheadRejectedException;
+import com.library.bulkhead.Compartment;
+import com.library.dto.CheckoutDTO;
 import com.library.dto.LoanDTO;
+import com.library.dto.NormalizedLoansDTO;
 import com.library.service.LoanService;
 
 import jakarta.inject.Inject;
@@ -37,13 +42,25 @@ public class LoanResource {
     LoanService loanService;
 
     @GET
+    @Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
+    @Bulkhead(Compartment.READS)
     @Operation(summary = "Listar todos los préstamos")
     public List<LoanDTO> listAll() {
         return loanService.listAll();
     }
 
+    @GET
+    @Path("/normalized")
+    @Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
+    @Bulkhead(Compartment.READS)
+    @Operation(summary = "Listar todos los préstamos con nombres y títulos sin repetir")
+    public NormalizedLoansDTO listAllNormalized() {
+        return loanService.listAllNormalized();
+    }
+
     @GET
     @Path("/user/{userId}/active")
+    @Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
     @Operation(summary = "Listar préstamos activos de un usuario")
     public List<LoanDTO> listActiveByUser(@PathParam("userId") Long userId) {
         return loanService.listActiveByUser(userId);
@@ -64,6 +81,8 @@ public class LoanResource {
             return Response.status(Response.Status.CONFLICT)
                 .entity(new ErrorResponse(e.getMessage()))
                 .build();
+        } catch (BulkheadRejectedException e) {
+            throw e; // 503 vía BulkheadRejectedMapper
         } catch (Exception e) {
             // Nunca exponer el stack trace al cliente
             LOG.severe("Error inesperado al crear préstamo: " + e.getMessage());
@@ -88,6 +107,8 @@ public class LoanResource {
             return Response.status(Response.Status.CONFLICT)
                 .entity(new ErrorResponse(e.getMessage()))
                 .build();
+        } catch (BulkheadRejectedException e) {
+            throw e; // 503 vía BulkheadRejectedMapper
         } catch (Exception e) {
             LOG.severe("Error inesperado al procesar devolución id=" + id + ": " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -95,4 +116,54 @@ public class LoanResource {
                 .build();
         }
     }
+
+    @POST
+    @Path("/checkout")
+    @Operation(summary = "Prestar el ejemplar escaneado por su código de barras")
+    public Response checkout(@Valid CheckoutDTO dto) {
+        try {
+            LoanDTO created = loanService.checkoutByBarcode(dto);
+            return Response.status(Response.Status.CREATED).entity(created).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        } catch (BulkheadRejectedException e) {
+            throw e; // 503 vía BulkheadRejectedMapper
+        } catch (Exception e) {
+            LOG.severe("Error inesperado al prestar ejemplar " + dto.barcode + ": " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(new ErrorResponse("Error interno del servidor"))
+                .build();
+        }
+    }
+
+    @PUT
+    @Path("/checkin/{barcode}")
+    @Operation(summary = "Registrar la devolución del ejemplar escaneado")
+    public Response checkin(@PathParam("barcode") String barcode) {
+        try {
+            LoanDTO updated = loanService.returnByBarcode(barcode);
+            return Response.ok(updated).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        } catch (BulkheadRejectedException e) {
+            throw e; // 503 vía BulkheadRejectedMapper
+        } catch (Exception e) {
+            LOG.severe("Error inesperado al devolver ejemplar " + barcode + ": " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(new ErrorResponse("Error interno del servidor"))
+                .build();
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.library.resource;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Traduce violaciones de restricciones únicas de la base de datos en
+ * respuestas 409. Permite que las escrituras se intenten directamente en
+ * un solo viaje a la base de datos, sin consultas previas de existencia,
+ * y sigan siendo correctas ante registros concurrentes.
+ */
+final class UniqueConstraints {
+
+    /** Código de error de MySQL para una clave única duplicada (ER_DUP_ENTRY). */
+    private static final int MYSQL_DUPLICATE_KEY = 1062;
+
+    /** Mensaje cuando la restricción violada no está mapeada (p. ej. índices con nombre autogenerado). */
+    private static final ErrorResponse UNKNOWN =
+        new ErrorResponse("Ya existe un registro con esos datos");
+
+    private UniqueConstraints() {}
+
+    /**
+     * Busca en la cadena de causas una violación de restricción única y
+     * retorna su nombre en minúsculas y sin el prefijo de tabla (MySQL 8
+     * reporta {@code tabla.restriccion}). Las violaciones de clave foránea,
+     * NOT NULL o CHECK no cuentan: no son un registro duplicado.
+     *
+     * @return el nombre de la restricción, "" si no se pudo extraer, o null
+     *         si el error no es una violación de restricción única
+     */
+    static String violatedConstraint(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violation) {
+                if (violation.getErrorCode() != MYSQL_DUPLICATE_KEY) {
+                    return null;
+                }
+                String name = violation.getConstraintName();
+                if (name == null) {
+                    return "";
+                }
+                return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Construye la respuesta 409 para la restricción violada y marca la
+     * transacción en curso para rollback.
+     *
+     * @param error    excepción lanzada al escribir
+     * @param messages mensaje por nombre de restricción
+     * @return la respuesta 409, o null si el error no es una violación de restricción única
+     */
+    static Response conflict(RuntimeException error, Map<String, ErrorResponse> messages) {
+        String constraint = violatedConstraint(error);
+        if (constraint == null) {
+            return null;
+        }
+        QuarkusTransaction.setRollbackOnly();
+        return Response.status(Response.Status.CONFLICT)
+            .entity(messages.getOrDefault(constraint, UNKNOWN))
+            .build();
+    }
+}
@@ -1,28 +1,43 @@
 package com.library.resource;
 
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import com.library.audit.AuditLog;
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.Compartment;
+import com.library.dto.RecommendationDTO;
 import com.library.dto.UserDTO;
+import com.library.entity.Book;
+import com.library.entity.BookCopy;
+import com.library.entity.Hold;
 import com.library.entity.Loan;
 import com.library.entity.User;
 import com.library.mapper.EntityMapper;
+import com.library.persistence.ReadOnly;
+import com.library.service.RecommendationService;
 
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -37,10 +52,27 @@ public class UserResource {
 
     private static final Logger LOG = Logger.getLogger(UserResource.class.getName());
 
+    private static final Map<String, ErrorResponse> CREATE_CONFLICTS = Map.of(
+        User.UK_EMAIL, new ErrorResponse("Ya existe un usuario con ese email", "email"),
+        User.UK_DOCUMENT, new ErrorResponse("Ya existe un usuario con ese documento", "identificationDocument"));
+
+    private static final Map<String, ErrorResponse> UPDATE_CONFLICTS = Map.of(
+        User.UK_EMAIL, new ErrorResponse("El email ya está registrado por otro usuario", "email"),
+        User.UK_DOCUMENT, new ErrorResponse("El documento ya está registrado por otro usuario", "identificationDocument"));
+
     @Inject
     EntityMapper mapper;
 
+    @Inject
+    AuditLog audit;
+
+    @Inject
+    RecommendationService recommendations;
+
     @GET
+    @Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
+    @Bulkhead(Compartment.READS)
+    @ReadOnly
     @Operation(summary = "Listar todos los usuarios")
     public List<UserDTO> listAll() {
         return User.<User>listAll()
@@ -51,6 +83,7 @@ public class UserResource {
 
     @GET
     @Path("/{id}")
+    @ReadOnly
     @Operation(summary = "Obtener usuario por ID")
     public Response getById(@PathParam("id") Long id) {
         User user = User.findById(id);
@@ -66,22 +99,19 @@ public class UserResource {
     @Transactional
     @Operation(summary = "Registrar un nuevo usuario")
     public Response create(@Valid UserDTO dto) {
-        // Validar email único
-        if (User.find("email", dto.email).firstResult() != null) {
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new ErrorResponse("Ya existe un usuario con ese email"))
-                .build();
-        }
-        // Validar documento único
-        if (User.find("identificationDocument", dto.identificationDocument).firstResult() != null) {
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new ErrorResponse("Ya existe un usuario con ese documento"))
-                .build();
-        }
+        // La unicidad de email y documento la garantizan las restricciones de la BD
         User user = mapper.toUser(dto);
-        User.persist(user);
+        try {
+            user.persistAndFlush();
+        } catch (PersistenceException e) {
+            Response conflict = UniqueConstraints.conflict(e, CREATE_CONFLICTS);
+            if (conflict == null) throw e;
+            return conflict;
+        }
+        UserDTO created = mapper.toUserDTO(user);
+        audit.record("User", user.id, "CREATE", null, created);
         return Response.status(Response.Status.CREATED)
-            .entity(mapper.toUserDTO(user))
+            .entity(created)
             .build();
     }
 
@@ -96,22 +126,19 @@ public class UserResource {
                 .entity(new ErrorResponse("Usuario no encontrado"))
                 .build();
         }
-        // Validar que el nuevo email no esté en uso por otro usuario
-        User emailOwner = User.find("email", dto.email).firstResult();
-        if (emailOwner != null && !emailOwner.id.equals(id)) {
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new ErrorResponse("El email ya está registrado por otro usuario"))
-                .build();
-        }
-        // Validar que el nuevo documento no esté en uso por otro usuario
-        User docOwner = User.find("identificationDocument", dto.identificationDocument).firstResult();
-        if (docOwner != null && !docOwner.id.equals(id)) {
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new ErrorResponse("El documento ya está registrado por otro usuario"))
-                .build();
-        }
+        UserDTO before = mapper.toUserDTO(user);
+        // Email y documento en uso por otro usuario se detectan al escribir
         mapper.updateUser(user, dto);
-        return Response.ok(mapper.toUserDTO(user)).build();
+        try {
+            User.flush();
+        } catch (PersistenceException e) {
+            Response conflict = UniqueConstraints.conflict(e, UPDATE_CONFLICTS);
+            if (conflict == null) throw e;
+            return conflict;
+        }
+        UserDTO updated = mapper.toUserDTO(user);
+        audit.record("User", id, "UPDATE", before, updated);
+        return Response.ok(updated).build();
     }
 
     @DELETE
@@ -125,13 +152,36 @@ public class UserResource {
                 .entity(new ErrorResponse("Usuario no encontrado"))
                 .build();
         }
-        // Restaurar el stock de los libros por cada préstamo activo del usuario
-        List<Loan> activeLoans = Loan.list("user.id = ?1 and status = ?2",
+        UserDTO before = mapper.toUserDTO(user);
+        // Restaurar en una sola sentencia el stock de los libros con préstamo
+        // activo del usuario (un usuario solo puede tener un préstamo activo por libro)
+        Book.update("availableQuantity = availableQuantity + 1 "
+                + "where availableQuantity < totalQuantity and id in "
+                + "(select l.book.id from Loan l where l.user.id = ?1 and l.status = ?2)",
                 id, Loan.LoanStatus.ACTIVE);
-        for (Loan loan : activeLoans) {
-            loan.book.restoreStock();
-        }
-        user.delete(); // CascadeType.ALL elimina los préstamos asociados
+        BookCopy.update("status = ?1 where id in "
+                + "(select l.copy.id from Loan l where l.user.id = ?2 and l.status = ?3)",
+                BookCopy.CopyStatus.AVAILABLE, id, Loan.LoanStatus.ACTIVE);
+        // Borrado masivo: evita cargar y eliminar cada préstamo vía CascadeType.ALL
+        Hold.delete("user.id", id);
+        Loan.delete("user.id", id);
+        User.delete("id", id);
+        audit.record("User", id, "DELETE", before, null);
         return Response.noContent().build();
     }
+
+    @GET
+    @Path("/{id}/recommendations")
+    @Operation(summary = "Libros recomendados según lo que pidieron usuarios con historial similar")
+    public Response listRecommendations(@PathParam("id") Long id,
+                                        @QueryParam("limit") @DefaultValue("10") @Min(1) @Max(50) int limit) {
+        try {
+            List<RecommendationDTO> result = recommendations.forUser(id, limit);
+            return Response.ok(result).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                .entity(new ErrorResponse(e.getMessage()))
+                .build();
+        }
+    }
 }
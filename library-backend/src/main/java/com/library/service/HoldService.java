@@ -0,0 +1,93 @@
+package com.library.service;
+
+import com.library.audit.AuditLog;
+import com.library.dto.HoldDTO;
+import com.library.entity.Book;
+import com.library.entity.Hold;
+import com.library.entity.Loan;
+import com.library.entity.User;
+import com.library.mapper.EntityMapper;
+import com.library.persistence.ReadOnly;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que gestiona la cola de reservas de libros sin ejemplares
+ * disponibles. Registrar una reserva inserta una fila en la cola bajo el
+ * bloqueo del libro, igual que préstamos y devoluciones: una devolución
+ * concurrente no puede dejar un ejemplar libre con la reserva en espera.
+ * La asignación de ejemplares devueltos ocurre en {@link LoanService#returnLoan}.
+ */
+@ApplicationScoped
+public class HoldService {
+
+    @Inject
+    EntityMapper mapper;
+
+    @Inject
+    AuditLog audit;
+
+    /**
+     * Coloca al usuario al final de la cola de reservas del libro.
+     *
+     * @param bookId ID del libro a reservar
+     * @param dto    DTO con el userId
+     * @return HoldDTO con los datos de la reserva creada
+     * @throws IllegalArgumentException si el usuario o libro no existen
+     * @throws IllegalStateException    si hay ejemplares disponibles o la reserva ya existe
+     */
+    @Transactional
+    public HoldDTO placeHold(Long bookId, HoldDTO dto) {
+        Book book = Book.findById(bookId, LockModeType.PESSIMISTIC_WRITE);
+        if (book == null) {
+            throw new IllegalArgumentException("Libro con ID " + bookId + " no encontrado.");
+        }
+
+        User user = User.findById(dto.userId);
+        if (user == null) {
+            throw new IllegalArgumentException("Usuario con ID " + dto.userId + " no encontrado.");
+        }
+
+        boolean alreadyWaiting = Hold.count(
+                "user.id = ?1 and book.id = ?2 and status = ?3",
+                dto.userId, bookId, Hold.HoldStatus.WAITING) > 0;
+        if (alreadyWaiting) {
+            throw new IllegalStateException(
+                "El usuario ya tiene una reserva en espera del libro '" + book.title + "'.");
+        }
+
+        boolean alreadyLoaned = Loan.count(
+                "user.id = ?1 and book.id = ?2 and status = ?3",
+                dto.userId, bookId, Loan.LoanStatus.ACTIVE) > 0;
+        if (alreadyLoaned) {
+            throw new IllegalStateException(
+                "El usuario ya tiene un préstamo activo del libro '" + book.title + "'.");
+        }
+
+        Hold hold = new Hold();
+        hold.enqueue(book, user); // valida que el libro no tenga ejemplares disponibles
+
+        Hold.persist(hold);
+        HoldDTO created = mapper.toHoldDTO(hold);
+        audit.record("Hold", hold.id, "CREATE", null, created);
+        return created;
+    }
+
+    /**
+     * Retorna la cola de reservas en espera de un libro, en orden de llegada.
+     */
+    @ReadOnly
+    public List<HoldDTO> listQueue(Long bookId) {
+        return Hold.<Hold>list("book.id = ?1 and status = ?2", Sort.by("id"),
+                bookId, Hold.HoldStatus.WAITING)
+            .stream()
+            .map(mapper::toHoldDTO)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,137 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.BookCopy;
+import com.library.entity.Hold;
+import com.library.entity.Loan;
+import com.library.validation.Isbn;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Migración al arrancar: calcula la clave canónica {@code isbn_key} de los
+ * libros registrados antes de la normalización de ISBN y fusiona los libros
+ * duplicados (mismo ISBN escrito con y sin guiones, o como ISBN-10 e ISBN-13).
+ *
+ * De cada grupo de duplicados se conserva el libro que ya tenga clave o, si
+ * ninguno la tiene, el de menor ID. Sus préstamos y reservas pasan al libro
+ * conservado, las cantidades totales se suman y la disponible se recalcula con
+ * los préstamos activos. Un duplicado que un mismo usuario tiene prestado a la
+ * vez que el libro conservado no se fusiona (quedaría con dos préstamos
+ * activos del mismo libro): se registra y queda pendiente hasta que se
+ * devuelva uno de los dos préstamos. Es idempotente: sin filas pendientes
+ * solo ejecuta una consulta. Al no haber petición se ejecuta sobre la sucursal
+ * por defecto, que es la que contiene las filas anteriores a las sucursales.
+ */
+@ApplicationScoped
+public class IsbnBackfill {
+
+    private static final Logger LOG = Logger.getLogger(IsbnBackfill.class.getName());
+
+    @ConfigProperty(name = "library.isbn.backfill-on-start", defaultValue = "true")
+    boolean enabled;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int merged = QuarkusTransaction.requiringNew().call(this::backfill);
+            if (merged > 0) {
+                LOG.info("Normalización de ISBN: " + merged + " libros duplicados fusionados.");
+            }
+        } catch (RuntimeException e) {
+            LOG.warning("No se pudo completar la normalización de ISBN: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return cantidad de libros duplicados fusionados
+     */
+    int backfill() {
+        List<Book> pending = Book.list("isbnKey is null");
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<Book>> byKey = new LinkedHashMap<>();
+        for (Book book : pending) {
+            long key = Isbn.parse(book.isbn);
+            if (key == Isbn.INVALID) {
+                // Sin clave no puede buscarse por ISBN; se corrige editando el libro
+                LOG.warning("Libro id=" + book.id + " con ISBN inválido '" + book.isbn
+                    + "': se deja sin clave canónica.");
+                continue;
+            }
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(book);
+        }
+
+        int merged = 0;
+        for (Map.Entry<Long, List<Book>> entry : byKey.entrySet()) {
+            long key = entry.getKey();
+            List<Book> group = entry.getValue();
+            Book survivor = Book.find("isbnKey", key).firstResult();
+            if (survivor == null) {
+                group.sort(Comparator.comparing(b -> b.id));
+                survivor = group.remove(0);
+            }
+            int before = merged;
+            for (Book duplicate : group) {
+                if (mergeInto(survivor, duplicate)) {
+                    merged++;
+                }
+            }
+            if (merged > before) {
+                long active = Loan.count("book.id = ?1 and status = ?2", survivor.id, Loan.LoanStatus.ACTIVE);
+                survivor.availableQuantity = Math.max(0, survivor.totalQuantity - (int) active);
+            }
+            survivor.assignIsbn(Isbn.format(key));
+        }
+        return merged;
+    }
+
+    /**
+     * Reasigna préstamos, reservas y ejemplares del duplicado al libro
+     * conservado, suma su cantidad total y elimina el duplicado. Las
+     * sentencias masivas se ejecutan de inmediato, así el ISBN del duplicado
+     * se libera antes de normalizar el del libro conservado.
+     *
+     * @return false si el duplicado no se fusionó por préstamos en conflicto
+     */
+    private boolean mergeInto(Book survivor, Book duplicate) {
+        long conflicts = Loan.count("book.id = ?1 and status = ?2 and user.id in "
+                + "(select l.user.id from Loan l where l.book.id = ?3 and l.status = ?2)",
+                duplicate.id, Loan.LoanStatus.ACTIVE, survivor.id);
+        if (conflicts > 0) {
+            LOG.warning("Libro id=" + duplicate.id + " no fusionado con id=" + survivor.id + ": "
+                + conflicts + " usuarios tienen préstamos activos de ambos.");
+            return false;
+        }
+        // Una segunda reserva en espera del mismo usuario sobraría en la cola
+        List<Long> waiting = Hold.getEntityManager()
+            .createQuery("select h.user.id from Hold h where h.book.id = ?1 and h.status = ?2", Long.class)
+            .setParameter(1, survivor.id)
+            .setParameter(2, Hold.HoldStatus.WAITING)
+            .getResultList();
+        if (!waiting.isEmpty()) {
+            Hold.delete("book.id = ?1 and status = ?2 and user.id in ?3",
+                duplicate.id, Hold.HoldStatus.WAITING, waiting);
+        }
+        Loan.update("book = ?1 where book.id = ?2", survivor, duplicate.id);
+        Hold.update("book = ?1 where book.id = ?2", survivor, duplicate.id);
+        BookCopy.update("book = ?1 where book.id = ?2", survivor, duplicate.id);
+        survivor.totalQuantity += duplicate.totalQuantity;
+        Book.delete("id", duplicate.id);
+        return true;
+    }
+}
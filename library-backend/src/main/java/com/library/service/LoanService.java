@@ -1,21 +1,43 @@
 package com.library.service;
 
+import com.library.audit.AuditLog;
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.Compartment;
+import com.library.dto.CheckoutDTO;
+import com.library.dto.HoldDTO;
 import com.library.dto.LoanDTO;
+import com.library.dto.NormalizedLoansDTO;
 import com.library.entity.Book;
+import com.library.entity.BookCopy;
+import com.library.entity.BookCopy.CopyStatus;
+import com.library.entity.Hold;
 import com.library.entity.Loan;
 import com.library.entity.User;
 import com.library.mapper.EntityMapper;
+import com.library.persistence.ReadOnly;
+import com.library.policy.LoanPolicyRegistry;
+import com.library.policy.LoanRule;
+import com.library.recommend.CoBorrowIndex;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Servicio que encapsula la lógica de negocio para préstamos.
  * Orquesta las operaciones sobre Loan, Book y User asegurando
  * consistencia transaccional.
+ *
+ * Toda operación que cambia el stock o la cola de reservas de un libro
+ * bloquea primero su fila (SELECT ... FOR UPDATE): préstamos, devoluciones
+ * y reservas del mismo libro se serializan y cada una ve lo confirmado por
+ * la anterior (aislamiento READ COMMITTED).
  */
 @ApplicationScoped
 public class LoanService {
@@ -23,6 +45,15 @@ public class LoanService {
     @Inject
     EntityMapper mapper;
 
+    @Inject
+    LoanPolicyRegistry policies;
+
+    @Inject
+    AuditLog audit;
+
+    @Inject
+    CoBorrowIndex coBorrow;
+
     /**
      * Registra un nuevo préstamo.
      *
@@ -32,55 +63,260 @@ public class LoanService {
      * @throws IllegalStateException    si hay alguna restricción de negocio
      */
     @Transactional
+    @Bulkhead(Compartment.CIRCULATION)
     public LoanDTO createLoan(LoanDTO dto) {
-        // Buscar entidades
+        // Buscar entidades; el libro primero, bloqueado hasta el commit
+        Book book = Book.findById(dto.bookId, LockModeType.PESSIMISTIC_WRITE);
+        if (book == null) {
+            throw new IllegalArgumentException("Libro con ID " + dto.bookId + " no encontrado.");
+        }
+
         User user = User.findById(dto.userId);
         if (user == null) {
             throw new IllegalArgumentException("Usuario con ID " + dto.userId + " no encontrado.");
         }
 
-        Book book = Book.findById(dto.bookId);
-        if (book == null) {
-            throw new IllegalArgumentException("Libro con ID " + dto.bookId + " no encontrado.");
+        // La cola de reservas tiene prioridad: el stock libre se ofrece primero a
+        // los usuarios en espera que ya pueden recibirlo
+        for (Loan allocated : allocateToHolders(book, null)) {
+            if (allocated.user.id.equals(user.id)) {
+                return mapper.toLoanDTO(allocated, allocated.copy);
+            }
+        }
+
+        // Si el libro tiene ejemplares etiquetados se entrega uno libre
+        BookCopy copy = book.checkAvailability() ? pickCopy(book) : null;
+        return register(book, copy, user);
+    }
+
+    /**
+     * Registra el préstamo del ejemplar escaneado en el mostrador. El libro
+     * del ejemplar se bloquea con una consulta sobre el índice único
+     * (sucursal, código de barras), igual que en el resto de la circulación;
+     * el ejemplar se lee ya bajo ese bloqueo.
+     *
+     * @param dto DTO con userId y código de barras
+     * @return LoanDTO con los datos del préstamo creado
+     * @throws IllegalArgumentException si el usuario o el ejemplar no existen
+     * @throws IllegalStateException    si hay alguna restricción de negocio
+     */
+    @Transactional
+    @Bulkhead(Compartment.CIRCULATION)
+    public LoanDTO checkoutByBarcode(CheckoutDTO dto) {
+        Book book = lockBookOfCopy(dto.barcode);
+        BookCopy copy = book == null ? null : BookCopy.<BookCopy>find(
+                "book.id = ?1 and barcode = ?2", book.id, dto.barcode).firstResult();
+        if (copy == null) {
+            throw new IllegalArgumentException("Ejemplar con código " + dto.barcode + " no encontrado.");
+        }
+
+        User user = User.findById(dto.userId);
+        if (user == null) {
+            throw new IllegalArgumentException("Usuario con ID " + dto.userId + " no encontrado.");
         }
 
+        // Como en createLoan, la cola de reservas se atiende antes
+        for (Loan allocated : allocateToHolders(book, null)) {
+            if (allocated.user.id.equals(user.id)) {
+                return mapper.toLoanDTO(allocated, allocated.copy);
+            }
+            if (allocated.copy == copy) {
+                throw new IllegalStateException(
+                    "El ejemplar " + dto.barcode + " quedó asignado a una reserva en espera.");
+            }
+        }
+        return register(book, copy, user);
+    }
+
+    /**
+     * Valida y persiste un préstamo del libro (y del ejemplar, si lo hay).
+     */
+    private LoanDTO register(Book book, BookCopy copy, User user) {
         // Validar que el usuario no tenga ya un préstamo activo del mismo libro
-        boolean alreadyLoaned = Loan.count(
-                "user.id = ?1 and book.id = ?2 and status = ?3",
-                dto.userId, dto.bookId, Loan.LoanStatus.ACTIVE) > 0;
-        if (alreadyLoaned) {
+        if (hasActiveLoan(user, book)) {
             throw new IllegalStateException(
                 "El usuario ya tiene un préstamo activo del libro '" + book.title + "'.");
         }
 
         // Crear el préstamo y ejecutar lógica de negocio
+        // La regla del nivel se resuelve en memoria, sin consultas adicionales
         Loan loan = new Loan();
-        loan.registerLoan(book, user); // valida y actualiza stock + activeLoans
+        loan.registerLoan(book, copy, user, policies.ruleFor(user.tier)); // valida y actualiza stock + activeLoans
 
         // Persistir
         Loan.persist(loan);
-        return mapper.toLoanDTO(loan);
+        coBorrow.recordLoan(loan); // se aplica al índice tras el commit
+        LoanDTO created = mapper.toLoanDTO(loan, copy);
+        audit.record("Loan", loan.id, "CREATE", null, created);
+        return created;
     }
 
     /**
-     * Finaliza (devuelve) un préstamo existente.
+     * Finaliza (devuelve) un préstamo existente. Si el libro tiene reservas en
+     * espera, el ejemplar devuelto se presta en la misma transacción al primer
+     * usuario de la cola que pueda recibirlo.
      *
      * @param loanId ID del préstamo a finalizar
      * @return LoanDTO actualizado
      */
     @Transactional
+    @Bulkhead(Compartment.CIRCULATION)
     public LoanDTO returnLoan(Long loanId) {
-        Loan loan = Loan.findById(loanId);
+        Book book = Book.<Book>find(
+                "from Book b where b.id = (select l.book.id from Loan l where l.id = ?1)", loanId)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .firstResult();
+        Loan loan = book != null ? Loan.findById(loanId) : null;
         if (loan == null) {
             throw new IllegalArgumentException("Préstamo con ID " + loanId + " no encontrado.");
         }
-        loan.finalizeLoan(); // actualiza estado, fecha y restaura stock
-        return mapper.toLoanDTO(loan);
+        return finish(loan);
+    }
+
+    /**
+     * Registra la devolución del ejemplar escaneado. Bloquea el libro por el
+     * código de barras y luego resuelve el préstamo activo con su ejemplar.
+     *
+     * @param barcode Código de barras del ejemplar devuelto
+     * @return LoanDTO actualizado
+     * @throws IllegalArgumentException si el ejemplar no existe
+     * @throws IllegalStateException    si el ejemplar no tiene un préstamo activo
+     */
+    @Transactional
+    @Bulkhead(Compartment.CIRCULATION)
+    public LoanDTO returnByBarcode(String barcode) {
+        Book book = lockBookOfCopy(barcode);
+        if (book == null) {
+            throw new IllegalArgumentException("Ejemplar con código " + barcode + " no encontrado.");
+        }
+        Loan loan = Loan.<Loan>find(
+                "from Loan l join fetch l.copy c where c.barcode = ?1 and l.status = ?2",
+                barcode, Loan.LoanStatus.ACTIVE)
+            .firstResult();
+        if (loan == null) {
+            throw new IllegalStateException("El ejemplar " + barcode + " no tiene un préstamo activo.");
+        }
+        return finish(loan);
+    }
+
+    /**
+     * Bloquea hasta el commit el libro del ejemplar con el código indicado.
+     *
+     * @return el libro, o null si no hay ejemplar con ese código
+     */
+    private Book lockBookOfCopy(String barcode) {
+        return Book.<Book>find(
+                "from Book b where b.id = (select c.book.id from BookCopy c where c.barcode = ?1)", barcode)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .firstResult();
+    }
+
+    /**
+     * Finaliza el préstamo y, si hay reservas, presta el mismo ejemplar al
+     * siguiente usuario de la cola.
+     */
+    private LoanDTO finish(Loan loan) {
+        LoanDTO before = mapper.toLoanDTO(loan);
+        loan.finalizeLoan(); // actualiza estado, fecha, restaura stock y libera el ejemplar
+        allocateToHolders(loan.book, loan.copy);
+        LoanDTO returned = mapper.toLoanDTO(loan, loan.copy);
+        audit.record("Loan", loan.id, "RETURN", before, returned);
+        return returned;
+    }
+
+    /**
+     * Atiende la cola de reservas del libro después de aumentar su stock (p. ej.
+     * al ampliar la cantidad total). El libro debe haberse cargado bloqueado en
+     * la transacción en curso.
+     */
+    @Transactional
+    public void allocateHolds(Book book) {
+        allocateToHolders(book, null);
+    }
+
+    /**
+     * Presta el stock disponible del libro a los usuarios de su cola de
+     * reservas, en orden de llegada. Se omiten, sin perder su turno, los
+     * usuarios que no pueden recibir el préstamo en este momento.
+     * Requiere el bloqueo del libro: con él, ninguna reserva ni préstamo del
+     * libro cambia mientras se recorre la cola.
+     *
+     * @param returned Ejemplar recién devuelto, que se entrega primero; puede ser null
+     * @return los préstamos creados, en orden de la cola
+     */
+    private List<Loan> allocateToHolders(Book book, BookCopy returned) {
+        if (!book.checkAvailability()) {
+            return List.of();
+        }
+        List<Hold> queue = Hold.<Hold>list(
+                "from Hold h join fetch h.user where h.book.id = ?1 and h.status = ?2 order by h.id",
+                book.id, Hold.HoldStatus.WAITING);
+        if (queue.isEmpty()) {
+            return List.of();
+        }
+        // Una sola consulta para descartar a quienes ya tienen el libro prestado
+        Set<Long> borrowers = new HashSet<>(Loan.getEntityManager()
+            .createQuery("select l.user.id from Loan l where l.book.id = ?1 and l.status = ?2", Long.class)
+            .setParameter(1, book.id)
+            .setParameter(2, Loan.LoanStatus.ACTIVE)
+            .getResultList());
+
+        List<Loan> allocated = new ArrayList<>();
+        BookCopy copy = returned;
+        for (Hold hold : queue) {
+            if (!book.checkAvailability()) {
+                break;
+            }
+            User user = hold.user;
+            LoanRule rule = policies.ruleFor(user.tier);
+            if (!user.canRequestLoan(rule) || borrowers.contains(user.id)) {
+                continue;
+            }
+            if (copy == null) {
+                copy = pickCopy(book);
+            }
+            Loan loan = new Loan();
+            loan.registerLoan(book, copy, user, rule);
+            Loan.persist(loan);
+            coBorrow.recordLoan(loan);
+            HoldDTO before = mapper.toHoldDTO(hold);
+            hold.fulfill(loan);
+            audit.record("Loan", loan.id, "CREATE", null, mapper.toLoanDTO(loan, copy));
+            audit.record("Hold", hold.id, "FULFILL", before, mapper.toHoldDTO(hold));
+            allocated.add(loan);
+            copy = null;
+        }
+        return allocated;
+    }
+
+    private boolean hasActiveLoan(User user, Book book) {
+        return Loan.count("user.id = ?1 and book.id = ?2 and status = ?3",
+                user.id, book.id, Loan.LoanStatus.ACTIVE) > 0;
+    }
+
+    /**
+     * Elige el ejemplar a entregar de un libro bloqueado y con stock
+     * disponible. Retorna null solo cuando el stock libre son unidades sin
+     * etiquetar: libros sin ejemplares registrados o con menos ejemplares que
+     * su cantidad total.
+     *
+     * @throws IllegalStateException si todas las unidades tienen ejemplar y
+     *         ninguno está libre (stock y ejemplares no coinciden)
+     */
+    private BookCopy pickCopy(Book book) {
+        BookCopy copy = BookCopy.<BookCopy>find("book.id = ?1 and status = ?2", book.id, CopyStatus.AVAILABLE)
+            .firstResult();
+        if (copy == null && BookCopy.count("book.id", book.id) >= book.totalQuantity) {
+            throw new IllegalStateException(
+                "El libro '" + book.title + "' figura con stock disponible pero ningún ejemplar libre.");
+        }
+        return copy;
     }
 
     /**
      * Retorna la lista completa de préstamos.
      */
+    @ReadOnly
     public List<LoanDTO> listAll() {
         return Loan.<Loan>listAll()
             .stream()
@@ -88,9 +324,21 @@ public class LoanService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Retorna la lista completa de préstamos en forma normalizada, enviando
+     * cada nombre de usuario y título de libro una sola vez.
+     */
+    @ReadOnly
+    public NormalizedLoansDTO listAllNormalized() {
+        // Usuario y libro en la misma consulta: el mapper lee nombre y título de cada fila
+        return mapper.toNormalizedLoansDTO(
+            Loan.<Loan>list("from Loan l join fetch l.user join fetch l.book order by l.id"));
+    }
+
     /**
      * Retorna los préstamos activos de un usuario específico.
      */
+    @ReadOnly
     public List<LoanDTO> listActiveByUser(Long userId) {
         return Loan.<Loan>list("user.id = ?1 and status = ?2", userId, Loan.LoanStatus.ACTIVE)
             .stream()
@@ -0,0 +1,107 @@
+package com.library.service;
+
+import com.library.dto.RecommendationDTO;
+import com.library.entity.Book;
+import com.library.entity.Loan;
+import com.library.entity.User;
+import com.library.persistence.ReadOnly;
+import com.library.recommend.CoBorrowIndex;
+import com.library.recommend.Neighbor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de recomendaciones "quienes pidieron este libro también pidieron",
+ * a partir del {@link CoBorrowIndex}. Las puntuaciones se leen de memoria; la
+ * base de datos solo se consulta para cargar los libros recomendados.
+ */
+@ApplicationScoped
+@ReadOnly
+public class RecommendationService {
+
+    @Inject
+    CoBorrowIndex index;
+
+    /**
+     * Libros más pedidos por los usuarios que pidieron el libro indicado.
+     *
+     * @throws IllegalArgumentException si el libro no existe
+     */
+    public List<RecommendationDTO> relatedBooks(Long bookId, int limit) {
+        if (Book.count("id", bookId) == 0) {
+            throw new IllegalArgumentException("Libro con ID " + bookId + " no encontrado.");
+        }
+        Map<Long, Long> scores = new LinkedHashMap<>();
+        for (Neighbor neighbor : index.related(bookId, index.capacity())) {
+            scores.put(neighbor.bookId(), (long) neighbor.count());
+        }
+        return toRecommendations(scores, limit);
+    }
+
+    /**
+     * Libros que el usuario aún no pidió, puntuados por la suma de sus
+     * co-préstamos con el historial del usuario.
+     *
+     * @throws IllegalArgumentException si el usuario no existe
+     */
+    public List<RecommendationDTO> forUser(Long userId, int limit) {
+        if (User.count("id", userId) == 0) {
+            throw new IllegalArgumentException("Usuario con ID " + userId + " no encontrado.");
+        }
+        Set<Long> borrowed = new HashSet<>(Loan.getEntityManager()
+            .createQuery("select distinct l.book.id from Loan l where l.user.id = ?1", Long.class)
+            .setParameter(1, userId)
+            .getResultList());
+
+        Map<Long, Long> scores = new HashMap<>();
+        for (Long bookId : borrowed) {
+            for (Neighbor neighbor : index.related(bookId, index.capacity())) {
+                if (!borrowed.contains(neighbor.bookId())) {
+                    scores.merge(neighbor.bookId(), (long) neighbor.count(), Long::sum);
+                }
+            }
+        }
+        Map<Long, Long> ranked = scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+            .limit(limit * 2L)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                (a, b) -> a, LinkedHashMap::new));
+        return toRecommendations(ranked, limit);
+    }
+
+    /**
+     * Carga en una consulta los libros puntuados, en el orden de {@code scores}.
+     * Se omiten los libros eliminados o de otra sucursal.
+     */
+    private List<RecommendationDTO> toRecommendations(Map<Long, Long> scores, int limit) {
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> books = Book.<Book>list("id in ?1", scores.keySet())
+            .stream()
+            .collect(Collectors.toMap(b -> b.id, Function.identity()));
+        List<RecommendationDTO> result = new ArrayList<>(limit);
+        for (Map.Entry<Long, Long> entry : scores.entrySet()) {
+            Book book = books.get(entry.getKey());
+            if (book == null) {
+                continue;
+            }
+            result.add(new RecommendationDTO(book.id, book.title, book.author, book.isbn,
+                book.availableQuantity, entry.getValue()));
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,121 @@
+package com.library.validation;
+
+/**
+ * Normalización de ISBN a su clave canónica ISBN-13 numérica.
+ *
+ * Acepta ISBN-10 e ISBN-13, con o sin guiones, y valida el dígito de control.
+ * El análisis recorre la cadena una sola vez sin crear objetos intermedios,
+ * por lo que puede usarse en validación y búsquedas sin costo de asignación.
+ * Los ISBN-10 se convierten a ISBN-13 con el prefijo 978.
+ */
+public final class Isbn {
+
+    /** Valor retornado por {@link #parse} cuando el ISBN no es válido. */
+    public static final long INVALID = -1L;
+
+    // ISBN-13 con 4 guiones ocupa 17 caracteres; se tolera un margen pequeño
+    private static final int MAX_LENGTH = 20;
+
+    private Isbn() {}
+
+    /**
+     * Convierte un ISBN en su clave canónica ISBN-13.
+     *
+     * @param text ISBN-10 o ISBN-13, con o sin guiones
+     * @return la clave ISBN-13 (13 dígitos) o {@link #INVALID}
+     */
+    public static long parse(CharSequence text) {
+        if (text == null) {
+            return INVALID;
+        }
+        int length = text.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return INVALID;
+        }
+
+        long digits = 0;      // dígitos numéricos leídos (sin el control 'X' de ISBN-10)
+        int count = 0;        // cantidad de dígitos/X leídos
+        int sum10 = 0;        // suma ponderada de ISBN-10 (pesos 10..1)
+        int sum13 = 0;        // suma ponderada de ISBN-13 (pesos 1,3,1,3…)
+        int lastDigit = -1;
+        boolean previousHyphen = true; // prohíbe guion inicial y guiones dobles
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '-') {
+                if (previousHyphen) {
+                    return INVALID;
+                }
+                previousHyphen = true;
+                continue;
+            }
+            previousHyphen = false;
+
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if ((c == 'X' || c == 'x') && count == 9 && i == length - 1) {
+                value = 10; // solo como dígito de control de un ISBN-10
+            } else {
+                return INVALID;
+            }
+            if (count == 13) {
+                return INVALID;
+            }
+            sum10 += value * (10 - count);
+            sum13 += value * ((count & 1) == 0 ? 1 : 3);
+            if (value < 10) {
+                digits = digits * 10 + value;
+            }
+            lastDigit = value;
+            count++;
+        }
+        if (previousHyphen) {
+            return INVALID; // guion final
+        }
+
+        if (count == 10) {
+            if (sum10 % 11 != 0) {
+                return INVALID;
+            }
+            // 978 + los 9 dígitos de datos + nuevo dígito de control
+            long data = lastDigit == 10 ? digits : digits / 10;
+            return toIsbn13(978_000_000_000L + data);
+        }
+        if (count == 13) {
+            if (sum13 % 10 != 0) {
+                return INVALID;
+            }
+            long prefix = digits / 10_000_000_000L;
+            return prefix == 978 || prefix == 979 ? digits : INVALID;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Indica si el texto es un ISBN-10 o ISBN-13 válido.
+     */
+    public static boolean isValid(CharSequence text) {
+        return parse(text) != INVALID;
+    }
+
+    /**
+     * Representación textual canónica de la clave: 13 dígitos sin guiones.
+     */
+    public static String format(long key) {
+        return Long.toString(key);
+    }
+
+    /** Agrega el dígito de control ISBN-13 a los 12 primeros dígitos. */
+    private static long toIsbn13(long first12) {
+        int sum = 0;
+        long rest = first12;
+        // Recorre de derecha a izquierda: la posición 12 (índice 11) pesa 3
+        for (int position = 11; position >= 0; position--) {
+            int digit = (int) (rest % 10);
+            rest /= 10;
+            sum += digit * ((position & 1) == 0 ? 1 : 3);
+        }
+        return first12 * 10 + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,15 @@
+package com.library.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validador de {@link ValidIsbn} basado en {@link Isbn#parse}.
+ */
+public class IsbnValidator implements ConstraintValidator<ValidIsbn, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || Isbn.isValid(value);
+    }
+}
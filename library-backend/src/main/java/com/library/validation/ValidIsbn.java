@@ -0,0 +1,30 @@
+package com.library.validation;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+/**
+ * Valida que el valor sea un ISBN-10 o ISBN-13 (con o sin guiones) con dígito
+ * de control correcto. Los valores null se consideran válidos; combinar con
+ * {@code @NotBlank} si el campo es obligatorio.
+ */
+@Documented
+@Constraint(validatedBy = IsbnValidator.class)
+@Target({FIELD, PARAMETER})
+@Retention(RUNTIME)
+public @interface ValidIsbn {
+
+    String message() default "ISBN inválido (use ISBN-10 o ISBN-13, con o sin guiones, con dígito de control correcto)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
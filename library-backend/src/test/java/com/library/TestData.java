@@ -0,0 +1,72 @@
+package com.library;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.library.entity.Book;
+import com.library.entity.Loan;
+import com.library.entity.User;
+
+/**
+ * Datos sintéticos para las pruebas. Cada llamada genera ISBN, documento y
+ * email distintos, de modo que las pruebas no chocan con los índices únicos.
+ *
+ * Los métodos que persisten deben llamarse dentro de una transacción
+ * (p. ej. {@code QuarkusTransaction.requiringNew().run(...)}).
+ */
+public final class TestData {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestData() {
+    }
+
+    /** ISBN-13 válido (prefijo 979, dígito de control correcto) y nuevo en cada llamada. */
+    public static String isbn() {
+        String core = "979" + String.format("%09d", SEQUENCE.incrementAndGet());
+        int total = 0;
+        for (int i = 0; i < core.length(); i++) {
+            total += (core.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return core + (10 - total % 10) % 10;
+    }
+
+    public static Book book(int quantity) {
+        Book book = new Book();
+        book.title = "Libro de prueba " + SEQUENCE.incrementAndGet();
+        book.author = "Autor de prueba";
+        book.assignIsbn(isbn());
+        book.totalQuantity = quantity;
+        book.availableQuantity = quantity;
+        book.persist();
+        return book;
+    }
+
+    public static User user() {
+        long n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.name = "Lector de prueba";
+        user.identificationDocument = "TD" + n;
+        user.email = "lector" + n + "@prueba.biblioteca.mx";
+        user.persist();
+        return user;
+    }
+
+    /**
+     * Préstamo activo de un ejemplar del libro, con los contadores de stock y
+     * de préstamos ajustados como lo haría {@link Loan#registerLoan}, pero sin
+     * aplicar el límite de préstamos del nivel del usuario.
+     */
+    public static Loan activeLoan(Book book, User user) {
+        Loan loan = new Loan();
+        loan.book = book;
+        loan.user = user;
+        loan.loanDate = LocalDate.now();
+        loan.dueDate = loan.loanDate.plusDays(14);
+        loan.status = Loan.LoanStatus.ACTIVE;
+        book.updateStock();
+        user.activeLoans++;
+        loan.persist();
+        return loan;
+    }
+}
@@ -0,0 +1,93 @@
+package com.library.persistence;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import com.library.TestData;
+import com.library.entity.Book;
+import com.library.entity.User;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+
+/**
+ * Los GET ({@link ReadOnly}) no hacen flush ni actualizan entidades. Registra
+ * además las entidades cargadas y la latencia media de cada endpoint.
+ */
+@QuarkusTest
+class ReadOnlyQueriesTest {
+
+    private static final Logger LOG = Logger.getLogger(ReadOnlyQueriesTest.class.getName());
+
+    private static final int LOANS = 200;
+    private static final int TIMED_REQUESTS = 10;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void getEndpointsNeverFlush() {
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            Book book = TestData.book(LOANS);
+            User user = null;
+            for (int i = 0; i < LOANS; i++) {
+                user = TestData.user();
+                TestData.activeLoan(book, user);
+            }
+            return new Long[] {book.id, user.id};
+        });
+        Long bookId = ids[0];
+        Long userId = ids[1];
+
+        List<String> paths = List.of(
+            "/api/books",
+            "/api/books/" + bookId,
+            "/api/books/" + bookId + "/copies",
+            "/api/books/" + bookId + "/holds",
+            "/api/users",
+            "/api/users/" + userId,
+            "/api/loans",
+            "/api/loans/normalized",
+            "/api/loans/user/" + userId + "/active",
+            "/api/policies",
+            "/api/catalog/books?q=prueba");
+
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String path : paths) {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMED_REQUESTS; i++) {
+                given().get(path).then().statusCode(200);
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0 / TIMED_REQUESTS;
+            assertEquals(0, statistics.getFlushCount(), "flush en GET " + path);
+            assertEquals(0, statistics.getEntityUpdateCount(), "UPDATE en GET " + path);
+            long loaded = statistics.getEntityLoadCount() / TIMED_REQUESTS;
+            LOG.info(() -> String.format("GET %-40s %6d entidades %8.2f ms", path, loaded, millis));
+        }
+    }
+
+    @Test
+    void graphQlQueriesNeverFlush() {
+        QuarkusTransaction.requiringNew().run(() -> TestData.activeLoan(TestData.book(1), TestData.user()));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given().contentType(ContentType.JSON)
+            .body(Map.of("query", "{ loans { id user { name } book { title } } }"))
+            .post("/graphql")
+            .then().statusCode(200);
+        assertEquals(0, statistics.getFlushCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+}
@@ -0,0 +1,119 @@
+package com.library.policy;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import com.library.TestData;
+import com.library.entity.LoanPolicy;
+import com.library.entity.User;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+
+/**
+ * El préstamo lee la regla del nivel del usuario del registro en memoria: no
+ * consulta loan_policies y ejecuta las mismas sentencias que con la regla por
+ * defecto (el antiguo MAX_LOANS). Registra además la latencia media de ambos.
+ */
+@QuarkusTest
+class LoanPolicyCheckoutTest {
+
+    private static final Logger LOG = Logger.getLogger(LoanPolicyCheckoutTest.class.getName());
+
+    private static final int CHECKOUTS = 100;
+
+    // Nivel sin política registrada: se aplica LoanRule.DEFAULT
+    private static final String TIER_WITHOUT_POLICY = "VISITOR";
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void checkoutAppliesThePolicyWithoutQueryingIt() {
+        definePolicy("STUDENT", 2, 7);
+        Long userId = seedUser("STUDENT");
+        Long bookId = QuarkusTransaction.requiringNew().call(() -> TestData.book(5).id);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        checkout(userId, bookId)
+            .statusCode(201)
+            .body("dueDate", equalTo(LocalDate.now().plusDays(7).toString()));
+
+        assertEquals(0, statistics.getEntityStatistics(LoanPolicy.class.getName()).getLoadCount());
+        assertFalse(Arrays.stream(statistics.getQueries()).anyMatch(q -> q.contains(LoanPolicy.class.getSimpleName())),
+            "el préstamo no debe consultar las políticas");
+    }
+
+    @Test
+    void checkoutCostsTheSameWithAPolicyAsWithTheDefaultRule() {
+        definePolicy("STAFF", 10, 30);
+        long staff = measureCheckouts("STAFF");
+        long visitor = measureCheckouts(TIER_WITHOUT_POLICY);
+        assertEquals(visitor, staff, "sentencias de " + CHECKOUTS + " préstamos");
+    }
+
+    /** Un préstamo por usuario y libro nuevos; retorna las sentencias de todos los préstamos. */
+    private long measureCheckouts(String tier) {
+        List<Long[]> pairs = QuarkusTransaction.requiringNew().call(() -> {
+            List<Long[]> seeded = new ArrayList<>(CHECKOUTS);
+            for (int i = 0; i < CHECKOUTS; i++) {
+                User user = TestData.user();
+                user.tier = tier;
+                seeded.add(new Long[] {user.id, TestData.book(1).id});
+            }
+            return seeded;
+        });
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (Long[] pair : pairs) {
+            checkout(pair[0], pair[1]).statusCode(201);
+        }
+        long elapsed = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+        LOG.info(() -> "Préstamo con nivel " + tier + ": " + statements / CHECKOUTS + " sentencias por préstamo, "
+            + String.format("%.2f", elapsed / 1_000_000.0 / CHECKOUTS) + " ms de media");
+        return statements;
+    }
+
+    private static void definePolicy(String tier, int maxLoans, int loanPeriodDays) {
+        given().contentType(ContentType.JSON)
+            .body(Map.of("maxLoans", maxLoans, "loanPeriodDays", loanPeriodDays))
+            .put("/api/policies/{tier}", tier)
+            .then().statusCode(lessThan(300));
+    }
+
+    private static Long seedUser(String tier) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            User user = TestData.user();
+            user.tier = tier;
+            return user.id;
+        });
+    }
+
+    private static ValidatableResponse checkout(Long userId, Long bookId) {
+        return given().contentType(ContentType.JSON)
+            .body(Map.of("userId", userId, "bookId", bookId))
+            .post("/api/loans")
+            .then();
+    }
+}
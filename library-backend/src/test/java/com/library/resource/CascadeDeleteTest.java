@@ -0,0 +1,102 @@
+package com.library.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.logging.Logger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import com.library.TestData;
+import com.library.entity.Book;
+import com.library.entity.Loan;
+import com.library.entity.User;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+/**
+ * El borrado de un libro o de un usuario usa sentencias masivas: la cantidad
+ * de sentencias SQL no depende de cuántos préstamos tenga. Registra además el
+ * tiempo del DELETE con pocos y con muchos préstamos.
+ */
+@QuarkusTest
+class CascadeDeleteTest {
+
+    private static final Logger LOG = Logger.getLogger(CascadeDeleteTest.class.getName());
+
+    private static final int FEW_LOANS = 10;
+    private static final int MANY_LOANS = 2_000;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void deletingABookRunsTheSameStatementsForAnyNumberOfLoans() {
+        long few = deleteBookWithLoans(FEW_LOANS);
+        long many = deleteBookWithLoans(MANY_LOANS);
+        assertEquals(few, many, "sentencias con " + FEW_LOANS + " vs " + MANY_LOANS + " préstamos");
+    }
+
+    @Test
+    void deletingAUserRunsTheSameStatementsForAnyNumberOfLoans() {
+        long few = deleteUserWithLoans(FEW_LOANS);
+        long many = deleteUserWithLoans(MANY_LOANS);
+        assertEquals(few, many, "sentencias con " + FEW_LOANS + " vs " + MANY_LOANS + " préstamos");
+    }
+
+    @Test
+    void deletingABookReleasesTheBorrowersLoanCounters() {
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            Book book = TestData.book(1);
+            User user = TestData.user();
+            TestData.activeLoan(book, user);
+            return new Long[] {book.id, user.id};
+        });
+
+        given().delete("/api/books/{id}", ids[0]).then().statusCode(204);
+
+        User user = QuarkusTransaction.requiringNew().call(() -> User.<User>findById(ids[1]));
+        assertEquals(0, user.activeLoans);
+        assertEquals(0L, QuarkusTransaction.requiringNew().call(() -> Loan.count("user.id", ids[1])));
+    }
+
+    /** Libro con {@code loans} préstamos activos de usuarios distintos; retorna las sentencias del DELETE. */
+    private long deleteBookWithLoans(int loans) {
+        Long bookId = QuarkusTransaction.requiringNew().call(() -> {
+            Book book = TestData.book(loans);
+            for (int i = 0; i < loans; i++) {
+                TestData.activeLoan(book, TestData.user());
+            }
+            return book.id;
+        });
+        return countStatements("/api/books/{id}", bookId, loans);
+    }
+
+    /** Usuario con {@code loans} préstamos activos de libros distintos; retorna las sentencias del DELETE. */
+    private long deleteUserWithLoans(int loans) {
+        Long userId = QuarkusTransaction.requiringNew().call(() -> {
+            User user = TestData.user();
+            for (int i = 0; i < loans; i++) {
+                TestData.activeLoan(TestData.book(1), user);
+            }
+            return user.id;
+        });
+        return countStatements("/api/users/{id}", userId, loans);
+    }
+
+    private long countStatements(String path, Long id, int loans) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        given().delete(path, id).then().statusCode(204);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        LOG.info(() -> "DELETE " + path + " con " + loans + " préstamos: "
+            + statements + " sentencias, " + elapsedMs + " ms");
+        return statements;
+    }
+}
@@ -0,0 +1,127 @@
+package com.library.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import com.library.TestData;
+import com.library.entity.Book;
+import com.library.entity.User;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Tamaño de los listados de préstamos según forma, formato y compresión.
+ * Usa {@link HttpClient}, que no descomprime: el tamaño medido es el que
+ * viaja por la red. Registra además el tiempo medio de cada variante, que
+ * incluye la serialización (y la compresión) en el servidor.
+ */
+@QuarkusTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PayloadSizeTest {
+
+    private static final Logger LOG = Logger.getLogger(PayloadSizeTest.class.getName());
+
+    private static final String JSON = "application/json";
+    private static final String CBOR = CborMessageBodyWriter.APPLICATION_CBOR;
+
+    // Cada usuario tiene un préstamo de cada libro: nombres y títulos se repiten en el listado
+    private static final int USERS = 20;
+    private static final int BOOKS = 100;
+
+    private static final int TIMED_REQUESTS = 20;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @TestHTTPResource("/api/loans")
+    URL loans;
+
+    @TestHTTPResource("/api/loans/normalized")
+    URL normalizedLoans;
+
+    @BeforeAll
+    void seedLoans() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            List<User> users = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                users.add(TestData.user());
+            }
+            for (int b = 0; b < BOOKS; b++) {
+                Book book = TestData.book(USERS);
+                for (User user : users) {
+                    TestData.activeLoan(book, user);
+                }
+            }
+        });
+    }
+
+    @Test
+    void normalizedListIsSmallerThanTheFullList() throws Exception {
+        assertSmaller(fetch(normalizedLoans, JSON, false), fetch(loans, JSON, false));
+    }
+
+    @Test
+    void cborIsSmallerThanJson() throws Exception {
+        assertSmaller(fetch(loans, CBOR, false), fetch(loans, JSON, false));
+        assertSmaller(fetch(normalizedLoans, CBOR, false), fetch(normalizedLoans, JSON, false));
+    }
+
+    @Test
+    void gzipIsSmallerThanIdentity() throws Exception {
+        HttpResponse<byte[]> compressed = fetch(loans, JSON, true);
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElse(null));
+        assertSmaller(compressed, fetch(loans, JSON, false));
+    }
+
+    @Test
+    void logsSizeAndTimeOfEachVariant() throws Exception {
+        for (URL url : List.of(loans, normalizedLoans)) {
+            for (String accept : List.of(JSON, CBOR)) {
+                for (boolean gzip : List.of(false, true)) {
+                    fetch(url, accept, gzip); // calentamiento
+                    long start = System.nanoTime();
+                    int bytes = 0;
+                    for (int i = 0; i < TIMED_REQUESTS; i++) {
+                        bytes = fetch(url, accept, gzip).body().length;
+                    }
+                    double millis = (System.nanoTime() - start) / 1_000_000.0 / TIMED_REQUESTS;
+                    String variant = url.getPath() + " " + accept + (gzip ? " + gzip" : "");
+                    int size = bytes;
+                    LOG.info(() -> String.format("%-45s %8d bytes %8.2f ms", variant, size, millis));
+                }
+            }
+        }
+    }
+
+    private HttpResponse<byte[]> fetch(URL url, String accept, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url.toString()))
+            .header("Accept", accept)
+            .GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode(), url + " " + accept);
+        return response;
+    }
+
+    private static void assertSmaller(HttpResponse<byte[]> smaller, HttpResponse<byte[]> larger) {
+        int small = smaller.body().length;
+        int large = larger.body().length;
+        assertTrue(small < large, small + " bytes no es menor que " + large + " bytes");
+    }
+}
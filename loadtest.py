@@ -0,0 +1,434 @@
+#!/usr/bin/env python3
+"""
+loadtest.py — Prueba de carga reproducible de la API de la biblioteca.
+
+Genera un catálogo y una base de usuarios sintéticos y luego ejecuta una mezcla
+configurable de peticiones concurrentes:
+
+    • GET  /api/books               (listado del catálogo)
+    • GET  /api/loans               (listado completo de préstamos, como un reporte)
+    • GET  /api/loans/normalized    (el mismo listado con nombres y títulos sin repetir)
+    • GET  /api/users/{id}          (consulta de usuario)
+    • POST /api/loans               (préstamo; los libros se eligen con sesgo Zipf)
+    • PUT  /api/loans/{id}/return   (devolución de un préstamo abierto por la prueba)
+
+Al terminar reporta, por endpoint, throughput, latencias p50/p99/p999 y el tamaño
+medio de la respuesta tal como viaja por la red. Los listados se piden en JSON o en
+CBOR (--accept) y, con --gzip, comprimidos; así se comparan formatos y compresión.
+Funciona contra cualquier backend levantado con `mvn quarkus:dev` (MySQL local)
+o con el perfil de producción; solo necesita la URL base.
+
+Uso:
+    python loadtest.py [--base-url http://localhost:8080] [--books 2000] [--users 500]
+                       [--duration 60] [--concurrency 16]
+                       [--mix books=40,user=20,loan=25,return=15] [--zipf 1.1]
+                       [--accept json|cbor] [--gzip]
+                       [--seed 42] [--json-out resultado.json] [--max-p99-ms 250]
+
+Sin dependencias externas (solo la biblioteca estándar de Python 3.10+).
+"""
+
+import argparse
+import bisect
+import gzip
+import http.client
+import json
+import random
+import sys
+import threading
+import time
+import urllib.parse
+from concurrent.futures import ThreadPoolExecutor
+
+
+# ─── Cliente HTTP ───────────────────────────────────────────────────────────────
+
+MEDIA_TYPES = {"json": "application/json", "cbor": "application/cbor"}
+
+
+class ApiClient:
+    """Cliente HTTP con conexión keep-alive; se usa una instancia por hilo."""
+
+    def __init__(self, base_url: str, timeout: float = 30.0, gzip_responses: bool = False):
+        parsed = urllib.parse.urlparse(base_url)
+        self.host = parsed.hostname or "localhost"
+        self.port = parsed.port or (443 if parsed.scheme == "https" else 80)
+        self.https = parsed.scheme == "https"
+        self.timeout = timeout
+        self.gzip_responses = gzip_responses
+        self.conn = None
+        # Bytes del último cuerpo recibido, antes de descomprimir
+        self.last_wire_bytes = 0
+
+    def _connect(self) -> http.client.HTTPConnection:
+        if self.conn is None:
+            cls = http.client.HTTPSConnection if self.https else http.client.HTTPConnection
+            self.conn = cls(self.host, self.port, timeout=self.timeout)
+        return self.conn
+
+    def request(self, method: str, path: str, payload: dict | None = None,
+                accept: str = MEDIA_TYPES["json"]) -> tuple[int, bytes]:
+        """Realiza la petición y retorna (status, cuerpo). Reintenta una vez si la conexión se cerró."""
+        body = json.dumps(payload).encode("utf-8") if payload is not None else None
+        headers = {"Accept": accept}
+        if self.gzip_responses:
+            headers["Accept-Encoding"] = "gzip"
+        if body is not None:
+            headers["Content-Type"] = "application/json"
+        for attempt in range(2):
+            conn = self._connect()
+            try:
+                conn.request(method, path, body=body, headers=headers)
+                resp = conn.getresponse()
+                raw = resp.read()
+                self.last_wire_bytes = len(raw)
+                if resp.getheader("Content-Encoding") == "gzip":
+                    raw = gzip.decompress(raw)
+                return resp.status, raw
+            except (http.client.HTTPException, ConnectionError, OSError):
+                conn.close()
+                self.conn = None
+                if attempt == 1:
+                    raise
+        raise RuntimeError("unreachable")
+
+
+# ─── Datos sintéticos ───────────────────────────────────────────────────────────
+
+LETTERS = "abcdefghijklmnopqrstuvwxyz"
+
+
+def letters_for(n: int) -> str:
+    """Codifica un entero en letras (los nombres de usuario solo admiten letras)."""
+    out = []
+    n += 1
+    while n > 0:
+        n, rem = divmod(n - 1, 26)
+        out.append(LETTERS[rem])
+    return "".join(reversed(out))
+
+
+def isbn13(n: int) -> str:
+    """Genera un ISBN-13 válido (prefijo 979, dígito de control correcto)."""
+    core = f"979{n:09d}"
+    total = sum(int(d) * (1 if i % 2 == 0 else 3) for i, d in enumerate(core))
+    return core + str((10 - total % 10) % 10)
+
+
+def synthetic_user(run: str, i: int) -> dict:
+    return {
+        "name": f"Lector {letters_for(i).capitalize()}",
+        "identificationDocument": f"LT{run}{i:07d}",
+        "email": f"lector{i}.{run.lower()}@carga.biblioteca.mx",
+    }
+
+
+def synthetic_book(i: int) -> dict:
+    return {
+        "title": f"Libro sintético {i}",
+        "author": f"Autor {letters_for(i % 997).capitalize()}",
+        "isbn": isbn13(i),
+        "totalQuantity": random.randint(1, 5),
+    }
+
+
+def create_many(base_url: str, path: str, payloads: list[dict], workers: int) -> list[dict]:
+    """Crea recursos en paralelo y retorna los creados (ignora duplicados)."""
+    local = threading.local()
+
+    def create(payload: dict) -> dict | None:
+        if not hasattr(local, "client"):
+            local.client = ApiClient(base_url)
+        status, body = local.client.request("POST", path, payload)
+        return json.loads(body) if status == 201 else None
+
+    with ThreadPoolExecutor(max_workers=workers) as pool:
+        return [r for r in pool.map(create, payloads) if r is not None]
+
+
+def setup(base_url: str, n_books: int, n_users: int, workers: int) -> tuple[list[int], list[int]]:
+    """Genera el catálogo y los usuarios; reutiliza los ya existentes de corridas previas."""
+    client = ApiClient(base_url)
+    run = f"{random.randrange(10 ** 4):04d}"
+
+    _, body = client.request("GET", "/api/books")
+    existing_isbns = {b["isbn"].replace("-", "") for b in json.loads(body)}
+    books = [synthetic_book(i) for i in range(n_books)]
+    books = [b for b in books if b["isbn"] not in existing_isbns]
+    print(f"📚  Creando {len(books)} libros sintéticos …", flush=True)
+    create_many(base_url, "/api/books", books, workers)
+
+    print(f"👤  Creando {n_users} usuarios sintéticos …", flush=True)
+    create_many(base_url, "/api/users", [synthetic_user(run, i) for i in range(n_users)], workers)
+
+    _, body = client.request("GET", "/api/books")
+    book_ids = [b["id"] for b in json.loads(body)]
+    _, body = client.request("GET", "/api/users")
+    user_ids = [u["id"] for u in json.loads(body)]
+    print(f"   → catálogo: {len(book_ids)} libros, {len(user_ids)} usuarios.\n")
+    return book_ids, user_ids
+
+
+# ─── Muestreo ───────────────────────────────────────────────────────────────────
+
+class ZipfSampler:
+    """Elige elementos con probabilidad ∝ 1/rango^s: pocos libros concentran la demanda."""
+
+    def __init__(self, items: list[int], s: float, rng: random.Random):
+        self.items = items[:]
+        rng.shuffle(self.items)
+        weights = [1.0 / (rank + 1) ** s for rank in range(len(self.items))]
+        self.cumulative = []
+        total = 0.0
+        for w in weights:
+            total += w
+            self.cumulative.append(total)
+        self.total = total
+
+    def sample(self, rng: random.Random) -> int:
+        return self.items[bisect.bisect_left(self.cumulative, rng.random() * self.total)]
+
+
+def parse_mix(spec: str) -> list[tuple[str, float]]:
+    mix = []
+    for part in spec.split(","):
+        name, _, weight = part.partition("=")
+        if name not in OPERATIONS:
+            raise argparse.ArgumentTypeError(f"operación desconocida: {name}")
+        mix.append((name, float(weight)))
+    return mix
+
+
+# ─── Métricas ───────────────────────────────────────────────────────────────────
+
+class Stats:
+    """Acumula latencias y códigos de respuesta por endpoint."""
+
+    def __init__(self):
+        self.lock = threading.Lock()
+        self.latencies: dict[str, list[float]] = {}
+        self.statuses: dict[str, dict[int, int]] = {}
+        self.wire_bytes: dict[str, int] = {}
+
+    def record(self, endpoint: str, status: int, millis: float, wire_bytes: int) -> None:
+        with self.lock:
+            self.latencies.setdefault(endpoint, []).append(millis)
+            self.wire_bytes[endpoint] = self.wire_bytes.get(endpoint, 0) + wire_bytes
+            by_status = self.statuses.setdefault(endpoint, {})
+            by_status[status] = by_status.get(status, 0) + 1
+
+
+def percentile(sorted_values: list[float], p: float) -> float:
+    if not sorted_values:
+        return 0.0
+    index = min(len(sorted_values) - 1, int(round(p / 100.0 * (len(sorted_values) - 1))))
+    return sorted_values[index]
+
+
+def summarize(stats: Stats, elapsed: float) -> dict:
+    report = {}
+    for endpoint, values in sorted(stats.latencies.items()):
+        values.sort()
+        report[endpoint] = {
+            "requests": len(values),
+            "throughput_rps": round(len(values) / elapsed, 2),
+            "p50_ms": round(percentile(values, 50), 2),
+            "p99_ms": round(percentile(values, 99), 2),
+            "p999_ms": round(percentile(values, 99.9), 2),
+            "max_ms": round(values[-1], 2),
+            "avg_kb": round(stats.wire_bytes[endpoint] / len(values) / 1024, 1),
+            "statuses": {str(k): v for k, v in sorted(stats.statuses[endpoint].items())},
+        }
+    return report
+
+
+# ─── Operaciones ────────────────────────────────────────────────────────────────
+
+class Workload:
+    """Estado compartido entre hilos: catálogo, muestreador y préstamos abiertos."""
+
+    def __init__(self, book_ids: list[int], user_ids: list[int], zipf: float, seed: int,
+                 list_accept: str = MEDIA_TYPES["json"]):
+        self.book_ids = book_ids
+        # Formato pedido en los listados (los demás endpoints solo producen JSON)
+        self.list_accept = list_accept
+        self.user_ids = user_ids
+        self.books = ZipfSampler(book_ids, zipf, random.Random(seed))
+        self.open_loans: list[int] = []
+        self.lock = threading.Lock()
+
+    def take_open_loan(self, rng: random.Random) -> int | None:
+        with self.lock:
+            if not self.open_loans:
+                return None
+            i = rng.randrange(len(self.open_loans))
+            self.open_loans[i], self.open_loans[-1] = self.open_loans[-1], self.open_loans[i]
+            return self.open_loans.pop()
+
+    def add_open_loan(self, loan_id: int) -> None:
+        with self.lock:
+            self.open_loans.append(loan_id)
+
+
+def op_books(client: ApiClient, work: Workload, rng: random.Random) -> tuple[str, int]:
+    status, _ = client.request("GET", "/api/books", accept=work.list_accept)
+    return "GET /api/books", status
+
+
+def op_loans(client: ApiClient, work: Workload, rng: random.Random) -> tuple[str, int]:
+    # Listado completo: simula la carga de reportes que compite con el mostrador
+    status, _ = client.request("GET", "/api/loans", accept=work.list_accept)
+    return "GET /api/loans", status
+
+
+def op_normalized(client: ApiClient, work: Workload, rng: random.Random) -> tuple[str, int]:
+    status, _ = client.request("GET", "/api/loans/normalized", accept=work.list_accept)
+    return "GET /api/loans/normalized", status
+
+
+def op_user(client: ApiClient, work: Workload, rng: random.Random) -> tuple[str, int]:
+    status, _ = client.request("GET", f"/api/users/{rng.choice(work.user_ids)}")
+    return "GET /api/users/{id}", status
+
+
+def op_loan(client: ApiClient, work: Workload, rng: random.Random) -> tuple[str, int]:
+    payload = {"userId": rng.choice(work.user_ids), "bookId": work.books.sample(rng)}
+    status, body = client.request("POST", "/api/loans", payload)
+    if status == 201:
+        work.add_open_loan(json.loads(body)["id"])
+    return "POST /api/loans", status
+
+
+def op_return(client: ApiClient, work: Workload, rng: random.Random) -> tuple[str, int]:
+    loan_id = work.take_open_loan(rng)
+    if loan_id is None:
+        return op_loan(client, work, rng)
+    status, _ = client.request("PUT", f"/api/loans/{loan_id}/return")
+    return "PUT /api/loans/{id}/return", status
+
+
+OPERATIONS = {
+    "books": op_books,
+    "loans": op_loans,
+    "normalized": op_normalized,
+    "user": op_user,
+    "loan": op_loan,
+    "return": op_return,
+}
+
+
+def run(base_url: str, work: Workload, mix: list[tuple[str, float]],
+        duration: float, concurrency: int, seed: int, gzip_responses: bool) -> tuple[Stats, float]:
+    stats = Stats()
+    names = [name for name, _ in mix]
+    weights = [weight for _, weight in mix]
+    deadline = time.perf_counter() + duration
+
+    def worker(index: int) -> None:
+        rng = random.Random(seed * 1000 + index)
+        client = ApiClient(base_url, gzip_responses=gzip_responses)
+        while time.perf_counter() < deadline:
+            operation = OPERATIONS[rng.choices(names, weights)[0]]
+            start = time.perf_counter()
+            try:
+                endpoint, status = operation(client, work, rng)
+            except Exception:
+                endpoint, status = operation.__name__, 0
+                client.last_wire_bytes = 0
+            stats.record(endpoint, status, (time.perf_counter() - start) * 1000.0, client.last_wire_bytes)
+
+    print(f"🚀  Ejecutando {duration:.0f}s con {concurrency} hilos …", flush=True)
+    started = time.perf_counter()
+    threads = [threading.Thread(target=worker, args=(i,), daemon=True) for i in range(concurrency)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    return stats, time.perf_counter() - started
+
+
+def print_report(report: dict, elapsed: float) -> None:
+    print()
+    print("─" * 106)
+    print(f"{'Endpoint':<30}{'req':>8}{'req/s':>9}{'p50 ms':>9}{'p99 ms':>9}"
+          f"{'p999 ms':>10}{'max ms':>9}{'KB/resp':>10}   códigos")
+    print("─" * 106)
+    for endpoint, r in report.items():
+        codes = " ".join(f"{k}×{v}" for k, v in r["statuses"].items())
+        print(f"{endpoint:<30}{r['requests']:>8}{r['throughput_rps']:>9}{r['p50_ms']:>9}"
+              f"{r['p99_ms']:>9}{r['p999_ms']:>10}{r['max_ms']:>9}{r['avg_kb']:>10}   {codes}")
+    print("─" * 106)
+    total = sum(r["requests"] for r in report.values())
+    print(f"Total: {total} peticiones en {elapsed:.1f}s ({total / elapsed:.1f} req/s)")
+    print("Nota: 409 en préstamos es un rechazo de negocio esperado (sin stock o límite alcanzado).")
+    print("      503 es un rechazo del bulkhead (compartimento saturado), también esperado bajo carga.")
+
+
+# ─── Main ────────────────────────────────────────────────────────────────────────
+
+def main() -> None:
+    parser = argparse.ArgumentParser(description="Prueba de carga de la API de biblioteca.")
+    parser.add_argument("--base-url", default="http://localhost:8080",
+                        help="URL base de la API (default: http://localhost:8080)")
+    parser.add_argument("--books", type=int, default=2000, help="Libros sintéticos a generar")
+    parser.add_argument("--users", type=int, default=500, help="Usuarios sintéticos a generar")
+    parser.add_argument("--skip-setup", action="store_true",
+                        help="No generar datos; usar el catálogo y usuarios existentes")
+    parser.add_argument("--duration", type=float, default=60, help="Duración en segundos")
+    parser.add_argument("--concurrency", type=int, default=16, help="Hilos concurrentes")
+    parser.add_argument("--mix", type=parse_mix, default="books=40,user=20,loan=25,return=15",
+                        help="Pesos de cada operación: books, loans, normalized, user, loan, return")
+    parser.add_argument("--accept", choices=sorted(MEDIA_TYPES), default="json",
+                        help="Formato de los listados (cabecera Accept): json o cbor")
+    parser.add_argument("--gzip", action="store_true",
+                        help="Pedir respuestas comprimidas (Accept-Encoding: gzip)")
+    parser.add_argument("--zipf", type=float, default=1.1,
+                        help="Exponente Zipf para elegir libros (0 = uniforme)")
+    parser.add_argument("--seed", type=int, default=42, help="Semilla para reproducibilidad")
+    parser.add_argument("--json-out", help="Guardar el reporte en un archivo JSON")
+    parser.add_argument("--max-p99-ms", type=float,
+                        help="Falla (exit 2) si algún endpoint supera este p99")
+    args = parser.parse_args()
+
+    base_url = args.base_url.rstrip("/")
+    random.seed(args.seed)
+
+    print()
+    print("╔══════════════════════════════════════════╗")
+    print("║   Library — Prueba de Carga              ║")
+    print("╚══════════════════════════════════════════╝")
+    print()
+
+    if args.skip_setup:
+        client = ApiClient(base_url)
+        book_ids = [b["id"] for b in json.loads(client.request("GET", "/api/books")[1])]
+        user_ids = [u["id"] for u in json.loads(client.request("GET", "/api/users")[1])]
+    else:
+        book_ids, user_ids = setup(base_url, args.books, args.users, args.concurrency)
+    if not book_ids or not user_ids:
+        print("❌  Se necesita al menos un libro y un usuario.")
+        sys.exit(1)
+
+    work = Workload(book_ids, user_ids, args.zipf, args.seed, MEDIA_TYPES[args.accept])
+    stats, elapsed = run(base_url, work, args.mix, args.duration, args.concurrency, args.seed, args.gzip)
+    report = summarize(stats, elapsed)
+    print_report(report, elapsed)
+
+    if args.json_out:
+        with open(args.json_out, "w", encoding="utf-8") as f:
+            json.dump({"elapsed_s": round(elapsed, 2), "config": {
+                "books": len(book_ids), "users": len(user_ids), "duration": args.duration,
+                "concurrency": args.concurrency, "zipf": args.zipf, "seed": args.seed,
+                "accept": args.accept, "gzip": args.gzip,
+            }, "endpoints": report}, f, indent=2, ensure_ascii=False)
+        print(f"💾  Reporte guardado en {args.json_out}")
+
+    if args.max_p99_ms is not None:
+        slow = [e for e, r in report.items() if r["p99_ms"] > args.max_p99_ms]
+        if slow:
+            print(f"❌  p99 por encima de {args.max_p99_ms} ms en: {', '.join(slow)}")
+            sys.exit(2)
+
+
+if __name__ == "__main__":
+    main()
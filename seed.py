@@ -66,13 +66,13 @@ BOOKS = [
     {
         "title": "El Quijote",
         "author": "Miguel de Cervantes",
-        "isbn": "978-84-206-0000-1",
+        "isbn": "978-84-206-0000-0",
         "totalQuantity": 5,
     },
     {
         "title": "Cien años de soledad",
         "author": "Gabriel García Márquez",
-        "isbn": "978-84-397-0495-1",
+        "isbn": "978-84-397-0495-9",
         "totalQuantity": 4,
     },
     {
@@ -84,25 +84,25 @@ BOOKS = [
     {
         "title": "El Principito",
         "author": "Antoine de Saint-Exupéry",
-        "isbn": "978-84-9838-388-3",
+        "isbn": "978-84-9838-388-1",
         "totalQuantity": 6,
     },
     {
         "title": "Fundación",
         "author": "Isaac Asimov",
-        "isbn": "978-84-450-7640-3",
+        "isbn": "978-84-450-7640-8",
         "totalQuantity": 3,
     },
     {
         "title": "El Señor de los Anillos",
         "author": "J.R.R. Tolkien",
-        "isbn": "978-84-450-7770-7",
+        "isbn": "978-84-450-7770-2",
         "totalQuantity": 4,
     },
     {
         "title": "Fahrenheit 451",
         "author": "Ray Bradbury",
-        "isbn": "978-84-450-7642-7",
+        "isbn": "978-84-450-7642-2",
         "totalQuantity": 2,
     },
     {
@@ -114,7 +114,7 @@ BOOKS = [
     {
         "title": "Design Patterns",
         "author": "Gang of Four",
-        "isbn": "978-0-20-163361-5",
+        "isbn": "978-0-20-163361-0",
         "totalQuantity": 2,
     },
     {
@@ -126,13 +126,13 @@ BOOKS = [
     {
         "title": "Crimen y Castigo",
         "author": "Fiódor Dostoyevski",
-        "isbn": "978-84-376-0299-2",
+        "isbn": "978-84-376-0299-8",
         "totalQuantity": 3,
     },
     {
         "title": "Sapiens: De animales a dioses",
         "author": "Yuval Noah Harari",
-        "isbn": "978-84-9992-255-0",
+        "isbn": "978-84-9992-255-3",
         "totalQuantity": 4,
     },
 ]
@@ -212,10 +212,11 @@ def seed_books(base_url: str) -> list[dict]:
     print("📚  Insertando libros …")
     created = []
     existing: list = get(f"{base_url}/api/books")  # type: ignore[assignment]
+    # La API guarda el ISBN normalizado (13 dígitos sin guiones)
     existing_isbns = {b["isbn"] for b in existing}
 
     for book in BOOKS:
-        if book["isbn"] in existing_isbns:
+        if book["isbn"].replace("-", "") in existing_isbns:
             print(f"   ↩  {book['title']} — ya existe, omitido.")
             continue
         try: